@@ -0,0 +1,101 @@
+package benchmarks;
+
+import chess.*;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The ChessGame calls the server makes for every move: move generation, applying a move and
+ * the check/checkmate/stalemate tests.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameBenchmarks {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public Positions position;
+
+    private ChessGame game;
+    private ChessBoard startBoard;
+    private List<ChessPosition> sideToMove;
+
+    @Setup
+    public void setup() {
+        game = position.newGame();
+        startBoard = game.getBoard().copy();
+        sideToMove = new ArrayList<>();
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = startBoard.getPiece(new ChessPosition(row, col));
+                if (piece != null && piece.getTeamColor() == position.turn()) {
+                    sideToMove.add(new ChessPosition(row, col));
+                }
+            }
+        }
+    }
+
+    // valid moves of every piece of the side to move, like a client highlighting moves
+    @Benchmark
+    public void validMoves(Blackhole blackhole) {
+        for (ChessPosition piecePosition : sideToMove) {
+            blackhole.consume(game.validMoves(piecePosition));
+        }
+    }
+
+    // includes restoring the board with copy(), which boardCopy measures on its own
+    @Benchmark
+    public ChessGame makeMove() throws InvalidMoveException {
+        game.setBoard(startBoard.copy());
+        game.setTeamTurn(position.turn());
+        game.makeMove(position.sampleMove());
+        return game;
+    }
+
+    @Benchmark
+    public boolean isInCheck() {
+        return game.isInCheck(position.turn());
+    }
+
+    // setTeamTurn drops the memoized status, so these measure the full check, not a cache hit
+    @Benchmark
+    public boolean isInCheckmate() {
+        game.setTeamTurn(position.turn());
+        return game.isInCheckmate(position.turn());
+    }
+
+    @Benchmark
+    public boolean isInStalemate() {
+        game.setTeamTurn(position.turn());
+        return game.isInStalemate(position.turn());
+    }
+
+    @Benchmark
+    public ChessGame.GameStatus status() {
+        game.setTeamTurn(position.turn());
+        return game.status();
+    }
+
+    // repeated status() on an unchanged position, answered from the memoized result
+    @Benchmark
+    public ChessGame.GameStatus statusCached() {
+        return game.status();
+    }
+
+    @Benchmark
+    public boolean hasAnyLegalMove() {
+        return game.hasAnyLegalMove();
+    }
+
+    @Benchmark
+    public ChessBoard boardCopy() {
+        return startBoard.copy();
+    }
+}
@@ -0,0 +1,17 @@
+package benchmarks;
+
+import java.util.Arrays;
+
+/**
+ * Runs the JMH benchmarks with the GC profiler on, so every result comes with its
+ * allocation rate (gc.alloc.rate.norm is bytes allocated per operation).
+ * Any other JMH options, such as a benchmark name filter, can be passed as arguments.
+ */
+public class Main {
+    public static void main(String[] args) throws Exception {
+        String[] jmhArgs = Arrays.copyOf(args, args.length + 2);
+        jmhArgs[args.length] = "-prof";
+        jmhArgs[args.length + 1] = "gc";
+        org.openjdk.jmh.Main.main(jmhArgs);
+    }
+}
@@ -0,0 +1,110 @@
+package benchmarks;
+
+import chess.*;
+
+/**
+ * The positions every benchmark runs over, one from each phase of the game.
+ * Boards are written the same way as the passoff tests: row 8 first, '|' between squares,
+ * upper case for white and lower case for black.
+ */
+public enum Positions {
+    // 1. e4 e5 2. Nf3 Nc6 3. Bb5, black to move
+    OPENING("""
+            |r| |b|q|k|b|n|r|
+            |p|p|p|p| |p|p|p|
+            | | |n| | | | | |
+            | |B| | |p| | | |
+            | | | | |P| | | |
+            | | | | | |N| | |
+            |P|P|P|P| |P|P|P|
+            |R|N|B|Q|K| | |R|
+            """, ChessGame.TeamColor.BLACK, new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null)),
+
+    // both sides castled, every piece still on the board
+    MIDDLEGAME("""
+            |r| | | | |r|k| |
+            | |p|p| |q|p|p|p|
+            |p| |n|p| |n| | |
+            | | |b| |p| |B| |
+            | | |B| |P| |b| |
+            |P| |N|P| |N| | |
+            | |P|P| |Q|P|P|P|
+            |R| | | | |R|K| |
+            """, ChessGame.TeamColor.WHITE, new ChessMove(new ChessPosition(3, 1), new ChessPosition(4, 1), null)),
+
+    // rook and pawns, with pins along the king's rank
+    ENDGAME("""
+            | | | | | | | | |
+            | | |p| | | | | |
+            | | | |p| | | | |
+            |K|P| | | | | |r|
+            | |R| | | |p| |k|
+            | | | | | | | | |
+            | | | | |P| |P| |
+            | | | | | | | | |
+            """, ChessGame.TeamColor.WHITE, new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+
+    private final String boardText;
+    private final ChessGame.TeamColor turn;
+    private final ChessMove sampleMove;
+
+    Positions(String boardText, ChessGame.TeamColor turn, ChessMove sampleMove) {
+        this.boardText = boardText;
+        this.turn = turn;
+        this.sampleMove = sampleMove;
+    }
+
+    public ChessGame newGame() {
+        ChessGame game = new ChessGame();
+        game.setBoard(newBoard());
+        game.setTeamTurn(turn);
+        return game;
+    }
+
+    public ChessBoard newBoard() {
+        ChessBoard board = new ChessBoard();
+        int row = 8;
+        int column = 1;
+        for (char c : boardText.toCharArray()) {
+            switch (c) {
+                case '\n' -> {
+                    row--;
+                    column = 1;
+                }
+                case ' ' -> column++;
+                case '|' -> {
+                }
+                default -> {
+                    ChessGame.TeamColor color = Character.isUpperCase(c)
+                            ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK;
+                    board.addPiece(new ChessPosition(row, column), ChessPiece.of(color, typeOf(c)));
+                    column++;
+                }
+            }
+        }
+        return board;
+    }
+
+    public ChessGame.TeamColor turn() {
+        return turn;
+    }
+
+    /**
+     * @return a legal move for the side to move
+     */
+    public ChessMove sampleMove() {
+        return sampleMove;
+    }
+
+    private static ChessPiece.PieceType typeOf(char c) {
+        return switch (Character.toLowerCase(c)) {
+            case 'k' -> ChessPiece.PieceType.KING;
+            case 'q' -> ChessPiece.PieceType.QUEEN;
+            case 'b' -> ChessPiece.PieceType.BISHOP;
+            case 'n' -> ChessPiece.PieceType.KNIGHT;
+            case 'r' -> ChessPiece.PieceType.ROOK;
+            case 'p' -> ChessPiece.PieceType.PAWN;
+            default -> throw new IllegalArgumentException("Unknown piece: " + c);
+        };
+    }
+}
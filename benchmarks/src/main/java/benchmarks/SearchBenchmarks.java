@@ -0,0 +1,87 @@
+package benchmarks;
+
+import chess.ChessGame;
+import chess.search.ParallelSearch;
+import chess.search.SearchResult;
+import chess.search.TranspositionTable;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time for the search to finish a fixed depth with each thread count, starting from an empty
+ * transposition table each time. Run this class's main to get each thread count's speedup
+ * over a single thread alongside the times.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SearchBenchmarks {
+
+    @Param({"OPENING", "MIDDLEGAME", "ENDGAME"})
+    public Positions position;
+
+    @Param({"1", "2", "4"})
+    public int threads;
+
+    @Param({"6"})
+    public int depth;
+
+    private ChessGame game;
+    private ParallelSearch search;
+
+    @Setup
+    public void setup() {
+        game = position.newGame();
+        search = new ParallelSearch(threads, new TranspositionTable(64));
+    }
+
+    @Setup(Level.Invocation)
+    public void clearTable() {
+        search.getTranspositionTable().clear();
+    }
+
+    @Benchmark
+    public SearchResult timeToDepth() {
+        return search.search(game, depth, 0);
+    }
+
+    /**
+     * Runs the search benchmarks, then prints how much faster each thread count reached the
+     * depth than a single thread did. JMH options, such as -p threads=1,8, can be passed as
+     * arguments.
+     */
+    public static void main(String[] args) throws Exception {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(SearchBenchmarks.class.getSimpleName())
+                .build();
+        Collection<RunResult> results = new Runner(options).run();
+
+        Map<String, Double> singleThread = new HashMap<>();
+        for (RunResult result : results) {
+            if (result.getParams().getParam("threads").equals("1")) {
+                singleThread.put(result.getParams().getParam("position"), result.getPrimaryResult().getScore());
+            }
+        }
+        System.out.printf("%n%-12s %8s %12s %8s%n", "position", "threads", "ms/search", "speedup");
+        for (RunResult result : results) {
+            String position = result.getParams().getParam("position");
+            double millis = result.getPrimaryResult().getScore();
+            Double baseline = singleThread.get(position);
+            System.out.printf("%-12s %8s %12.2f %8s%n", position, result.getParams().getParam("threads"), millis,
+                    baseline == null ? "-" : String.format("%.2fx", baseline / millis));
+        }
+    }
+}
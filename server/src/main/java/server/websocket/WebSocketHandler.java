@@ -162,21 +162,31 @@ public class WebSocketHandler {
                         String.format("%s just moved from %s to %s ", user, from, to));
                 connections.broadcast(gameID, user, notification);
 
-                if (game.isInCheckmate(opposingColor)) {
+                //it is now the opposing team's turn, so the status is theirs
+                ChessGame.GameStatus status = game.status();
+                if (status == ChessGame.GameStatus.CHECKMATE) {
                     //change to players name
                     Notification notif = new Notification(ServerMessage.ServerMessageType.NOTIFICATION,
                             String.format("%s is in checkmate!", opposingColor));
                     connections.broadcast(gameID, "", notif); //send to everyone
                     game.setIsOver(true);
-                } else if (game.isInCheck(opposingColor)) {
+                } else if (status == ChessGame.GameStatus.CHECK) {
                     //change to players name
                     Notification notif = new Notification(ServerMessage.ServerMessageType.NOTIFICATION,
                             String.format("%s is now in check!", opposingColor.toString()));
                     connections.broadcast(gameID, "", notif); //send to everyone
-                } else if (game.isInStalemate(opposingColor)) {
+                } else if (status == ChessGame.GameStatus.STALEMATE) {
                     Notification notif = new Notification(ServerMessage.ServerMessageType.NOTIFICATION, "The game is now in stalemate. It's a tie!");
                     connections.broadcast(gameID, "", notif); //send to everyone
                     game.setIsOver(true);
+                } else if (status.isDraw()) {
+                    String reason = status == ChessGame.GameStatus.THREEFOLD_REPETITION ? "threefold repetition"
+                            : status == ChessGame.GameStatus.FIFTY_MOVE_RULE ? "the fifty-move rule"
+                            : "insufficient material";
+                    Notification notif = new Notification(ServerMessage.ServerMessageType.NOTIFICATION,
+                            String.format("The game is a draw by %s. It's a tie!", reason));
+                    connections.broadcast(gameID, "", notif); //send to everyone
+                    game.setIsOver(true);
                 }
                 LoadGame loadGameWhite = new LoadGame(
                         ServerMessage.ServerMessageType.LOAD_GAME,
@@ -1,25 +1,92 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.Arrays;
-import java.util.Objects;
 
 /**
  * A chessboard that can hold and rearrange chess pieces.
  * <p>
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
+ * <p>
+ * Internally the board is a set of bitboards: one 64-bit set per (color, piece type)
+ * plus occupancy masks for each color and for the whole board. Bit 0 is row 1, column 1
+ * and bit 63 is row 8, column 8. getPiece/addPiece are a view over those sets.
+ * <p>
+ * All of the board's state, including its Zobrist key, lives in a single long array, so
+ * a board is one small object plus one array and copy() is a single System.arraycopy.
+ * <p>
+ * The board also carries the castling rights and en passant square, which makeMove keeps up
+ * to date. They are part of the position but not of the piece placement, so they are left
+ * out of equals and of zobristKey(); positionKey() includes them.
+ * <p>
+ * Gson stores the state array as is and still reads boards saved as the old 8x8 array of
+ * pieces (see ChessBoardAdapterFactory).
  */
+@JsonAdapter(ChessBoardAdapterFactory.class)
 public class ChessBoard {
-    private ChessPiece[][] squares = new ChessPiece[8][8]; //squares is an array of  8x8 chess pieces
+    static final int NUM_PIECE_SETS = 12;
+    static final int KING = ChessPiece.PieceType.KING.ordinal();
+    static final int QUEEN = ChessPiece.PieceType.QUEEN.ordinal();
+    static final int BISHOP = ChessPiece.PieceType.BISHOP.ordinal();
+    static final int KNIGHT = ChessPiece.PieceType.KNIGHT.ordinal();
+    static final int ROOK = ChessPiece.PieceType.ROOK.ordinal();
+    static final int PAWN = ChessPiece.PieceType.PAWN.ordinal();
+
+    //castling rights bits
+    static final int WHITE_KINGSIDE = 1;
+    static final int WHITE_QUEENSIDE = 2;
+    static final int BLACK_KINGSIDE = 4;
+    static final int BLACK_QUEENSIDE = 8;
+    static final int ALL_CASTLING = 15;
+
+    //the castling rights that survive a move to or from each square
+    private static final int[] CASTLING_KEPT = new int[64];
+    //a1 is dark, so the light squares are those whose row and column add up to an odd number
+    private static final long LIGHT_SQUARES = 0x55AA55AA55AA55AAL;
+
+    static {
+        Arrays.fill(CASTLING_KEPT, ALL_CASTLING);
+        CASTLING_KEPT[squareIndex(1, 5)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_KEPT[squareIndex(1, 8)] &= ~WHITE_KINGSIDE;
+        CASTLING_KEPT[squareIndex(1, 1)] &= ~WHITE_QUEENSIDE;
+        CASTLING_KEPT[squareIndex(8, 5)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_KEPT[squareIndex(8, 8)] &= ~BLACK_KINGSIDE;
+        CASTLING_KEPT[squareIndex(8, 1)] &= ~BLACK_QUEENSIDE;
+    }
+
+    //layout of the state array: the piece sets, indexed by color * 6 + piece type, then the
+    //occupancy of each color, then of the whole board, then the Zobrist key of the placement,
+    //then the castling rights and en passant square (0 for none; a1 can never be one)
+    private static final int COLOR_OCCUPANCY = NUM_PIECE_SETS;
+    private static final int OCCUPANCY = COLOR_OCCUPANCY + 2;
+    private static final int ZOBRIST_KEY = OCCUPANCY + 1;
+    private static final int CASTLING_RIGHTS = ZOBRIST_KEY + 1;
+    private static final int EN_PASSANT = CASTLING_RIGHTS + 1;
+    private static final int STATE_SIZE = EN_PASSANT + 1;
+
+    private long[] bitboards = new long[STATE_SIZE];
+
+    //the letter for each piece set index, white upper case, as in FEN
+    static final String PIECE_CHARS = "KQBNRPkqbnrp";
+
     public ChessBoard() {
 
     }
 
     @Override
     public String toString() {
-        return "ChessBoard{" +
-                "squares=" + Arrays.toString(squares) +
-                '}';
+        StringBuilder sb = new StringBuilder("ChessBoard{\n");
+        for (int row = 8; row >= 1; row--) {
+            sb.append('|');
+            for (int col = 1; col <= 8; col++) {
+                int index = pieceIndexAt(squareIndex(row, col));
+                sb.append(index < 0 ? ' ' : PIECE_CHARS.charAt(index)).append('|');
+            }
+            sb.append('\n');
+        }
+        return sb.append('}').toString();
     }
 
     @Override
@@ -31,12 +98,30 @@ public class ChessBoard {
             return false;
         }
         ChessBoard that = (ChessBoard) o;
-        return Objects.deepEquals(squares, that.squares);
+        // the key differs for almost any two different boards, so compare it before the rest
+        if (bitboards[ZOBRIST_KEY] != that.bitboards[ZOBRIST_KEY]) {
+            return false;
+        }
+        return Arrays.equals(bitboards, 0, CASTLING_RIGHTS, that.bitboards, 0, CASTLING_RIGHTS);
     }
 
     @Override
     public int hashCode() {
-        return Arrays.deepHashCode(squares);
+        return Long.hashCode(bitboards[ZOBRIST_KEY]);
+    }
+
+    /**
+     * @return a 64-bit Zobrist key for the piece placement; equal boards have equal keys
+     */
+    public long zobristKey() {
+        return bitboards[ZOBRIST_KEY];
+    }
+
+    /**
+     * @return the placement key with the castling rights and en passant square folded in
+     */
+    long positionKey() {
+        return bitboards[ZOBRIST_KEY] ^ Zobrist.castling(castlingRights()) ^ Zobrist.enPassant(enPassantSquare());
     }
 
     /**
@@ -45,9 +130,12 @@ public class ChessBoard {
      * @param position where to add the piece to
      * @param piece    the piece to add
      */
-    // add a -1 to make it zero based like the array
     public void addPiece(ChessPosition position, ChessPiece piece) {
-        squares[position.getRow()-1][position.getColumn()-1] = piece;
+        int square = squareIndex(position);
+        clearSquare(square);
+        if (piece != null) {
+            togglePiece(square, pieceIndex(piece.getTeamColor(), piece.getPieceType()));
+        }
     }
 
     /**
@@ -57,9 +145,9 @@ public class ChessBoard {
      * @return Either the piece at the position, or null if no piece is at that
      * position
      */
-    //add a -1 to make it zero based like the array
     public ChessPiece getPiece(ChessPosition position) {
-        return squares[position.getRow()-1][position.getColumn()-1];
+        int index = pieceIndexAt(squareIndex(position));
+        return index < 0 ? null : ChessPiece.ofIndex(index);
     }
 
     /**
@@ -67,54 +155,377 @@ public class ChessBoard {
      * (How the game of chess normally starts)
      */
     public void resetBoard() {
-        // reset board to all null
-        for (int row = 0; row < 8; row++) {
-            for (int column = 0; column < 8; column++) {
-                squares[row][column] = null;
+        // reset board to all empty
+        Arrays.fill(bitboards, 0L);
+        bitboards[CASTLING_RIGHTS] = ALL_CASTLING;
+
+        //add new pieces
+        ChessPiece.PieceType[] backRank = {
+                ChessPiece.PieceType.ROOK,
+                ChessPiece.PieceType.KNIGHT,
+                ChessPiece.PieceType.BISHOP,
+                ChessPiece.PieceType.QUEEN,
+                ChessPiece.PieceType.KING,
+                ChessPiece.PieceType.BISHOP,
+                ChessPiece.PieceType.KNIGHT,
+                ChessPiece.PieceType.ROOK
+        };
+        for (int column = 1; column <= 8; column++) {
+            togglePiece(squareIndex(1, column), pieceIndex(ChessGame.TeamColor.WHITE, backRank[column - 1]));
+            togglePiece(squareIndex(2, column), pieceIndex(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN));
+            togglePiece(squareIndex(7, column), pieceIndex(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN));
+            togglePiece(squareIndex(8, column), pieceIndex(ChessGame.TeamColor.BLACK, backRank[column - 1]));
+        }
+    }
+
+    public void initializeDefaultBoard() {
+        resetBoard();
+    }
+
+    public ChessBoard copy() {
+        ChessBoard newBoard = new ChessBoard();
+        System.arraycopy(bitboards, 0, newBoard.bitboards, 0, STATE_SIZE);
+        return newBoard;
+    }
+
+    /**
+     * @return the set of squares holding pieces of the given color and type
+     */
+    public long getBitboard(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return bitboards[pieceIndex(color, type)];
+    }
+
+    /**
+     * @return the set of squares holding pieces of the given color
+     */
+    public long getOccupancy(ChessGame.TeamColor color) {
+        return bitboards[COLOR_OCCUPANCY + color.ordinal()];
+    }
+
+    /**
+     * @return the set of squares holding any piece
+     */
+    public long getOccupancy() {
+        return bitboards[OCCUPANCY];
+    }
+
+    /**
+     * @return the position of the given team's king, or null if it has none on the board
+     */
+    public ChessPosition getKingPosition(ChessGame.TeamColor color) {
+        int square = kingSquare(color.ordinal());
+        return square < 0 ? null : positionOf(square);
+    }
+
+    /**
+     * The piece sets are kept up to date by addPiece and makeMove/unmakeMove, so the king's
+     * square is just the lowest set bit of its set and a team's pieces are its occupancy mask.
+     *
+     * @return the king's square for the color (0 white, 1 black), or -1 if there is none
+     */
+    int kingSquare(int color) {
+        long king = bitboards[color * 6 + KING];
+        return king == 0 ? -1 : Long.numberOfTrailingZeros(king);
+    }
+
+    /**
+     * @return True if the king of the color (0 white, 1 black) is attacked; a board without
+     * that king is never in check
+     */
+    boolean isInCheck(int color) {
+        int kingSquare = kingSquare(color);
+        return kingSquare >= 0 && isSquareAttacked(kingSquare, 1 - color);
+    }
+
+    /**
+     * Determines if any piece of the given color attacks a square
+     *
+     * @param position the square to test
+     * @param byColor  the attacking team
+     * @return True if a piece of byColor could capture on the square
+     */
+    public boolean isSquareAttacked(ChessPosition position, ChessGame.TeamColor byColor) {
+        return isSquareAttacked(squareIndex(position), byColor.ordinal());
+    }
+
+    /**
+     * Looks outward from the square for each kind of attacker instead of generating the
+     * attacker's moves: a knight attacks the square exactly when a knight on the square would
+     * attack it back, and the same holds for kings, sliders and (with colors swapped) pawns.
+     */
+    boolean isSquareAttacked(int square, int byColor) {
+        return isSquareAttacked(square, byColor, bitboards[OCCUPANCY]);
+    }
+
+    /**
+     * Same as isSquareAttacked, but with the given occupancy blocking the sliders. The legal
+     * move generator uses this to test king moves with the king lifted off the board, so a
+     * king can't step back along the ray of the slider checking it.
+     */
+    boolean isSquareAttacked(int square, int byColor, long occupancy) {
+        int base = byColor * 6;
+        if ((Bitboards.pawnAttacks(1 - byColor, square) & bitboards[base + PAWN]) != 0) {
+            return true;
+        }
+        if ((Bitboards.knightAttacks(square) & bitboards[base + KNIGHT]) != 0) {
+            return true;
+        }
+        if ((Bitboards.kingAttacks(square) & bitboards[base + KING]) != 0) {
+            return true;
+        }
+        long queens = bitboards[base + QUEEN];
+        if ((Bitboards.bishopAttacks(square, occupancy) & (bitboards[base + BISHOP] | queens)) != 0) {
+            return true;
+        }
+        return (Bitboards.rookAttacks(square, occupancy) & (bitboards[base + ROOK] | queens)) != 0;
+    }
+
+    /**
+     * @return every piece of byColor that attacks the square
+     */
+    long attackersTo(int square, int byColor) {
+        int base = byColor * 6;
+        long occupied = bitboards[OCCUPANCY];
+        long queens = bitboards[base + QUEEN];
+        return (Bitboards.pawnAttacks(1 - byColor, square) & bitboards[base + PAWN])
+                | (Bitboards.knightAttacks(square) & bitboards[base + KNIGHT])
+                | (Bitboards.kingAttacks(square) & bitboards[base + KING])
+                | (Bitboards.bishopAttacks(square, occupied) & (bitboards[base + BISHOP] | queens))
+                | (Bitboards.rookAttacks(square, occupied) & (bitboards[base + ROOK] | queens));
+    }
+
+    /**
+     * @return the castling rights still held, as WHITE_KINGSIDE | WHITE_QUEENSIDE | ... bits
+     */
+    int castlingRights() {
+        return (int) bitboards[CASTLING_RIGHTS];
+    }
+
+    /**
+     * The square is only set when a pawn that could capture onto it is in place, so two
+     * positions with the same capture options have the same key.
+     *
+     * @return the square a pawn just skipped over with its two-square move, or -1 if none
+     */
+    int enPassantSquare() {
+        int square = (int) bitboards[EN_PASSANT];
+        return square == 0 ? -1 : square;
+    }
+
+    void setCastlingRights(int rights) {
+        bitboards[CASTLING_RIGHTS] = rights & ALL_CASTLING;
+    }
+
+    /**
+     * Sets the en passant square, keeping it only if a pawn could capture onto it
+     *
+     * @param square the square a pawn skipped over, or -1 for none
+     */
+    void setEnPassantSquare(int square) {
+        bitboards[EN_PASSANT] = 0;
+        if (square >= 16 && square < 24) {
+            // skipped by a white pawn, so black pawns take it
+            if ((Bitboards.pawnAttacks(0, square) & bitboards[6 + PAWN]) != 0) {
+                bitboards[EN_PASSANT] = square;
+            }
+        } else if (square >= 40 && square < 48) {
+            if ((Bitboards.pawnAttacks(1, square) & bitboards[PAWN]) != 0) {
+                bitboards[EN_PASSANT] = square;
             }
         }
-        //add new pieces
-        squares[0][0] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
-        squares[0][1] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-        squares[0][2] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-        squares[0][3] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.QUEEN);
-        squares[0][4] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KING);
-        squares[0][5] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP);
-        squares[0][6] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.KNIGHT);
-        squares[0][7] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK);
+    }
 
-        for (int column = 0; column < 8; column++) {
-            squares[1][column] = new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.PAWN);
+    /**
+     * Gives each side the castling rights its king and rooks on their starting squares allow
+     * and clears the en passant square. Used when a game is handed a board built piece by
+     * piece, which has no move history to take the rights from.
+     */
+    void inferCastlingRights() {
+        int rights = 0;
+        for (int color = 0; color < 2; color++) {
+            int home = color == 0 ? 4 : 60;
+            long rooks = bitboards[color * 6 + ROOK];
+            if ((bitboards[color * 6 + KING] & (1L << home)) != 0) {
+                if ((rooks & (1L << (home + 3))) != 0) {
+                    rights |= WHITE_KINGSIDE << (color * 2);
+                }
+                if ((rooks & (1L << (home - 4))) != 0) {
+                    rights |= WHITE_QUEENSIDE << (color * 2);
+                }
+            }
         }
+        bitboards[CASTLING_RIGHTS] = rights;
+        bitboards[EN_PASSANT] = 0;
+    }
 
-        squares[7][0] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
-        squares[7][1] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
-        squares[7][2] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
-        squares[7][3] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.QUEEN);
-        squares[7][4] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KING);
-        squares[7][5] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.BISHOP);
-        squares[7][6] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.KNIGHT);
-        squares[7][7] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.ROOK);
+    /**
+     * A draw when neither side has enough to force mate: only kings, kings and one knight or
+     * bishop, or kings and bishops that all stand on the same color of square.
+     *
+     * @return True if neither side can possibly checkmate
+     */
+    public boolean hasInsufficientMaterial() {
+        long heavy = 0;
+        for (int color = 0; color < 2; color++) {
+            heavy |= bitboards[color * 6 + PAWN] | bitboards[color * 6 + ROOK] | bitboards[color * 6 + QUEEN];
+        }
+        if (heavy != 0) {
+            return false;
+        }
+        long knights = bitboards[KNIGHT] | bitboards[6 + KNIGHT];
+        long bishops = bitboards[BISHOP] | bitboards[6 + BISHOP];
+        if (Long.bitCount(knights | bishops) <= 1) {
+            return true;
+        }
+        return knights == 0 && ((bishops & LIGHT_SQUARES) == 0 || (bishops & ~LIGHT_SQUARES) == 0);
+    }
+
+    /**
+     * Plays a packed move (see {@link Move}) in place, without checking that it is legal.
+     * A promotion replaces the moving pawn with the promotion piece, castling moves the rook
+     * too, and the castling rights and en passant square are updated.
+     *
+     * @return an undo record to hand to unmakeMove
+     */
+    long makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int moved = pieceIndexAt(from);
+        int color = moved / 6;
+        int promotion = Move.promotion(move);
+        int placed = promotion < 0 ? moved : color * 6 + promotion;
 
-        for (int column = 0; column < 8; column++) {
-            squares[6][column] = new ChessPiece(ChessGame.TeamColor.BLACK, ChessPiece.PieceType.PAWN);
+        int captured;
+        if (Move.isEnPassant(move)) {
+            // the captured pawn is on the start row, in the end square's column
+            captured = (1 - color) * 6 + PAWN;
+            togglePiece(to ^ 8, captured);
+        } else {
+            captured = pieceIndexAt(to);
+            if (captured >= 0) {
+                togglePiece(to, captured);
+            }
+        }
+        togglePiece(from, moved);
+        togglePiece(to, placed);
+        if (Move.isCastle(move)) {
+            int rook = color * 6 + ROOK;
+            boolean kingside = to > from;
+            togglePiece(kingside ? from + 3 : from - 4, rook);
+            togglePiece(kingside ? from + 1 : from - 1, rook);
         }
 
+        // undo record: the move itself, the piece that left from, captured piece + 1 (0 if none),
+        // then the castling rights and en passant square from before the move
+        long undo = (move & 0xFFFFF) | moved << 20 | (captured + 1) << 24
+                | bitboards[CASTLING_RIGHTS] << 28 | bitboards[EN_PASSANT] << 32;
+        bitboards[CASTLING_RIGHTS] &= CASTLING_KEPT[from] & CASTLING_KEPT[to];
+        bitboards[EN_PASSANT] = 0;
+        if ((move & Move.DOUBLE_PUSH) != 0) {
+            int skipped = (from + to) >>> 1;
+            if ((Bitboards.pawnAttacks(color, skipped) & bitboards[(1 - color) * 6 + PAWN]) != 0) {
+                bitboards[EN_PASSANT] = skipped;
+            }
+        }
+        return undo;
     }
-    public void initializeDefaultBoard() {
-        resetBoard();
+
+    /**
+     * Takes back a move played with makeMove. Moves must be undone in reverse order.
+     */
+    void unmakeMove(long undo) {
+        int move = undoneMove(undo);
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int promotion = Move.promotion(move);
+        int moved = (int) (undo >>> 20) & 0xF;
+        int captured = ((int) (undo >>> 24) & 0xF) - 1;
+        int color = moved / 6;
+        int placed = promotion < 0 ? moved : color * 6 + promotion;
+
+        if (Move.isCastle(move)) {
+            int rook = color * 6 + ROOK;
+            boolean kingside = to > from;
+            togglePiece(kingside ? from + 1 : from - 1, rook);
+            togglePiece(kingside ? from + 3 : from - 4, rook);
+        }
+        togglePiece(to, placed);
+        togglePiece(from, moved);
+        if (captured >= 0) {
+            togglePiece(Move.isEnPassant(move) ? to ^ 8 : to, captured);
+        }
+        bitboards[CASTLING_RIGHTS] = (undo >>> 28) & 0xF;
+        bitboards[EN_PASSANT] = (undo >>> 32) & 0x3F;
     }
 
-    public ChessBoard copy() {
-        ChessBoard newBoard = new ChessBoard();
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPiece piece = squares[row][col];
-                if (piece != null) {
-                    newBoard.squares[row][col] = new ChessPiece(piece.getTeamColor(), piece.getPieceType());
-                }
+    /**
+     * @return the packed move an undo record from makeMove was made for
+     */
+    static int undoneMove(long undo) {
+        return (int) undo & 0xFFFFF;
+    }
+
+    /**
+     * @return the piece set index of the piece moved by an undo record's move
+     */
+    static int movedPiece(long undo) {
+        return (int) (undo >>> 20) & 0xF;
+    }
+
+    // adds the piece if the square is empty, removes it if it is there
+    private void togglePiece(int square, int pieceIndex) {
+        long bit = 1L << square;
+        bitboards[pieceIndex] ^= bit;
+        bitboards[COLOR_OCCUPANCY + pieceIndex / 6] ^= bit;
+        bitboards[OCCUPANCY] ^= bit;
+        bitboards[ZOBRIST_KEY] ^= Zobrist.piece(pieceIndex, square);
+    }
+
+    long colorOccupancy(int color) {
+        return bitboards[COLOR_OCCUPANCY + color];
+    }
+
+    long pieceSet(int pieceIndex) {
+        return bitboards[pieceIndex];
+    }
+
+    /**
+     * @return the piece set index of the piece on the square, or -1 if it is empty
+     */
+    int pieceIndexAt(int square) {
+        long bit = 1L << square;
+        if ((bitboards[OCCUPANCY] & bit) == 0) {
+            return -1;
+        }
+        for (int index = 0; index < NUM_PIECE_SETS; index++) {
+            if ((bitboards[index] & bit) != 0) {
+                return index;
             }
         }
-        return newBoard;
+        return -1;
+    }
+
+    private void clearSquare(int square) {
+        int index = pieceIndexAt(square);
+        if (index >= 0) {
+            togglePiece(square, index);
+        }
+    }
+
+    static int pieceIndex(ChessGame.TeamColor color, ChessPiece.PieceType type) {
+        return color.ordinal() * 6 + type.ordinal();
+    }
+
+    // add a -1 to make it zero based like the bitboards
+    static int squareIndex(int row, int column) {
+        return (row - 1) * 8 + (column - 1);
+    }
+
+    static int squareIndex(ChessPosition position) {
+        return squareIndex(position.getRow(), position.getColumn());
+    }
+
+    static ChessPosition positionOf(int square) {
+        return ChessPosition.ofSquare(square);
     }
 }
@@ -0,0 +1,90 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Gson form of a ChessBoard. Boards are written as their state array, but games stored
+ * before the board moved to bitboards hold a "squares" field, an 8x8 array of pieces indexed
+ * by row and then column. Those are read into a board piece by piece, with the castling
+ * rights going by where the kings and rooks stand, as setBoard does. JSON in neither form is
+ * rejected rather than read as an empty board.
+ * <p>
+ * Registered on ChessBoard with @JsonAdapter, so every Gson in the client and server uses it.
+ */
+class ChessBoardAdapterFactory implements TypeAdapterFactory {
+    private static final String STATE_FIELD = "bitboards";
+    private static final String OLD_SQUARES_FIELD = "squares";
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != ChessBoard.class) {
+            return null;
+        }
+        TypeAdapter<ChessBoard> fields = (TypeAdapter<ChessBoard>) gson.getDelegateAdapter(this, type);
+        TypeAdapter<JsonElement> elements = gson.getAdapter(JsonElement.class);
+        TypeAdapter<ChessPiece[][]> squares = gson.getAdapter(ChessPiece[][].class);
+        return (TypeAdapter<T>) new TypeAdapter<ChessBoard>() {
+            @Override
+            public void write(JsonWriter out, ChessBoard board) throws IOException {
+                fields.write(out, board);
+            }
+
+            @Override
+            public ChessBoard read(JsonReader in) throws IOException {
+                JsonElement json = elements.read(in);
+                if (json == null || json.isJsonNull()) {
+                    return null;
+                }
+                if (!json.isJsonObject()) {
+                    throw new JsonParseException("Expected a ChessBoard object but was " + json);
+                }
+                JsonObject object = json.getAsJsonObject();
+                if (object.has(STATE_FIELD)) {
+                    return fields.fromJsonTree(object);
+                }
+                if (object.has(OLD_SQUARES_FIELD)) {
+                    return fromSquares(squares.fromJsonTree(object.get(OLD_SQUARES_FIELD)));
+                }
+                throw new JsonParseException("ChessBoard JSON has neither \"" + STATE_FIELD
+                        + "\" nor \"" + OLD_SQUARES_FIELD + "\": " + object);
+            }
+        };
+    }
+
+    private static ChessBoard fromSquares(ChessPiece[][] squares) {
+        if (squares == null || squares.length != 8) {
+            throw new JsonParseException("Old ChessBoard squares must be 8 rows");
+        }
+        ChessBoard board = new ChessBoard();
+        for (int row = 1; row <= 8; row++) {
+            ChessPiece[] pieces = squares[row - 1];
+            if (pieces == null || pieces.length != 8) {
+                throw new JsonParseException("Old ChessBoard row " + row + " must have 8 squares");
+            }
+            for (int col = 1; col <= 8; col++) {
+                ChessPiece piece = pieces[col - 1];
+                if (piece == null) {
+                    continue;
+                }
+                if (piece.getTeamColor() == null || piece.getPieceType() == null) {
+                    throw new JsonParseException("Old ChessBoard piece at row " + row + ", column " + col
+                            + " has no color or type");
+                }
+                board.addPiece(new ChessPosition(row, col), piece);
+            }
+        }
+        board.inferCastlingRights();
+        return board;
+    }
+}
@@ -1,8 +1,13 @@
 package chess;
 
+import com.google.gson.annotations.JsonAdapter;
+
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 /**
@@ -11,12 +16,39 @@ import java.util.Objects;
  * Note: You can add to this class, but you may not alter
  * signature of the existing methods.
  */
+@JsonAdapter(ChessGameAdapterFactory.class)
 public class ChessGame {
     private ChessGame.TeamColor currentTeamColor;
     private ChessBoard currentBoard;
 
     private boolean isOver;
 
+    //the undo record of every move made since the board was set, oldest first, and the key of
+    //the position each move was made from. Grown on demand; only the first historySize count.
+    //Only the undo records in use are serialized (see ChessGameAdapterFactory)
+    private long[] moveHistory = new long[0];
+    private transient long[] keyHistory = new long[0];
+    private transient int historySize;
+    //moves since the last capture or pawn move, for the fifty-move rule
+    private int halfmoveClock;
+    //starts at 1 and goes up after each of black's moves, as in FEN
+    private int fullmoveNumber = 1;
+
+    //the halfmove clock from before each move is stored in the top bits of its undo record,
+    //above anything the board's undo record uses
+    private static final int CLOCK_SHIFT = 48;
+    private static final int FIFTY_MOVE_LIMIT = 100;
+
+    //reused by move generation so validMoves and the status checks don't allocate move lists
+    private transient MoveList scratchMoves = new MoveList();
+    //one move list per ply for perft, grown on demand
+    private transient MoveList[] plyMoves = new MoveList[0];
+    //used to look for a single legal move without generating all of them
+    private transient LegalMoveIterator legalMoves = new LegalMoveIterator();
+    //status() of the position with this zobrist key, so repeated status checks don't regenerate moves
+    private transient GameStatus cachedStatus;
+    private transient long cachedStatusKey;
+
     public ChessGame() {
         currentTeamColor = TeamColor.WHITE;
         currentBoard = new ChessBoard();
@@ -49,6 +81,7 @@ public class ChessGame {
      */
     public void setTeamTurn(TeamColor team) {
         currentTeamColor = team;
+        cachedStatus = null;
     }
 
     /**
@@ -59,6 +92,27 @@ public class ChessGame {
         BLACK
     }
 
+    /**
+     * The state of the game for the team whose turn it is
+     */
+    public enum GameStatus {
+        NORMAL,
+        CHECK,
+        CHECKMATE,
+        STALEMATE,
+        THREEFOLD_REPETITION,
+        FIFTY_MOVE_RULE,
+        INSUFFICIENT_MATERIAL;
+
+        /**
+         * @return True if the game has ended in a draw
+         */
+        public boolean isDraw() {
+            return this == STALEMATE || this == THREEFOLD_REPETITION
+                    || this == FIFTY_MOVE_RULE || this == INSUFFICIENT_MATERIAL;
+        }
+    }
+
     /**
      * Gets a valid moves for a piece at the given location
      *
@@ -67,32 +121,19 @@ public class ChessGame {
      * startPosition
      */
     public Collection<ChessMove> validMoves(ChessPosition startPosition) {
-        Collection<ChessMove> validMoves = new ArrayList<>();
-        ChessPiece piece = currentBoard.getPiece(startPosition);
-        if (piece == null) {
+        int square = ChessBoard.squareIndex(startPosition);
+        if (currentBoard.pieceIndexAt(square) < 0) {
             return null;
         }
-        Collection<ChessMove> moves = piece.pieceMoves(currentBoard, startPosition);
-        for (ChessMove move : moves) {
-            ChessBoard originalBoardState = currentBoard.copy();
-            simulateMove(startPosition, move.getEndPosition());
-            if (!isInCheck(piece.getTeamColor())) {
-                validMoves.add(move);
-            }
-            currentBoard = originalBoardState;
+        scratchMoves.clear();
+        MoveGenerator.generateLegalPieceMoves(currentBoard, square, scratchMoves);
+        Collection<ChessMove> validMoves = new ArrayList<>(scratchMoves.size());
+        for (int i = 0; i < scratchMoves.size(); i++) {
+            validMoves.add(Move.toChessMove(scratchMoves.get(i)));
         }
         return validMoves;
     }
 
-    private void simulateMove(ChessPosition moveFrom, ChessPosition moveTo) {
-        ChessPiece pieceToMove = currentBoard.getPiece(moveFrom);
-        // Move the piece on the board
-        if (pieceToMove != null) {
-            currentBoard.addPiece(moveTo, pieceToMove);
-            currentBoard.addPiece(moveFrom, null);
-        }
-    }
-
     /**
      * Makes a move in a chess game
      *
@@ -100,78 +141,234 @@ public class ChessGame {
      * @throws InvalidMoveException if move is invalid
      */
     public void makeMove(ChessMove move) throws InvalidMoveException {
-        Collection<ChessMove> validMoves = validMoves(move.getStartPosition());
-        ChessPiece pieceToMove = currentBoard.getPiece(move.getStartPosition());
-
-        if (pieceToMove == null || pieceToMove.getTeamColor() != currentTeamColor) {
+        int legalMove = toLegalMove(move);
+        if (legalMove == Move.NONE) {
             throw new InvalidMoveException();
         }
-        for (ChessMove validMove : validMoves) {
-            if (move.equals(validMove)) {
-                //check if there is a promo piece and replace pawn if there is
-                if (move.getPromotionPiece() != null) {
-                    pieceToMove = new ChessPiece(pieceToMove.getTeamColor(), move.getPromotionPiece());
-                }
-                currentBoard.addPiece(validMove.getEndPosition(), pieceToMove);
-                currentBoard.addPiece(validMove.getStartPosition(), null);
-                setTeamTurn(currentTeamColor == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE);
-                return;
-            }
+        makeMove(legalMove);
+    }
+
+    /**
+     * Makes a packed move (see {@link Move}) without checking it, for engines that play and
+     * take back many moves. The move must come from generateMoves or generateCaptures in the
+     * current position.
+     *
+     * @param move a legal packed move
+     */
+    public void makeMove(int move) {
+        long key = zobristKey();
+        long undo = currentBoard.makeMove(move) | (long) halfmoveClock << CLOCK_SHIFT;
+        boolean irreversible = Move.isCapture(move) || ChessBoard.movedPiece(undo) % 6 == ChessBoard.PAWN;
+        halfmoveClock = irreversible ? 0 : halfmoveClock + 1;
+        if (historySize == moveHistory.length) {
+            int capacity = Math.max(16, historySize * 2);
+            moveHistory = Arrays.copyOf(moveHistory, capacity);
+            keyHistory = Arrays.copyOf(keyHistory, capacity);
+        }
+        moveHistory[historySize] = undo;
+        keyHistory[historySize] = key;
+        historySize++;
+        if (currentTeamColor == TeamColor.BLACK) {
+            fullmoveNumber++;
         }
-        throw new InvalidMoveException();
+        setTeamTurn(otherTeam(currentTeamColor)); // also drops the cached status
     }
 
     /**
-     * Determines if the given team is in check
+     * Takes back the last move made with makeMove, restoring the board, castling and en
+     * passant rights and the turn exactly as they were before it
      *
-     * @param teamColor which team to check for check
-     * @return True if the specified team is in check
+     * @throws InvalidMoveException if no move has been made since the board was set
      */
-    public boolean isInCheck(TeamColor teamColor) {
-        ChessPosition kingPosition = findKingPos(teamColor);
-
-        // Iterate over all positions on the board
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPosition position = new ChessPosition(row + 1, col + 1);
-                ChessPiece pieceAtPos = currentBoard.getPiece(position);
-
-                // Skip empty squares or pieces from the same team
-                if (isOpponentPiece(pieceAtPos, teamColor)) {
-                    if (canAttackKing(pieceAtPos, position, kingPosition)) {
-                        return true; // An opponent's piece can attack the king
-                    }
-                }
-            }
+    public void undoMove() throws InvalidMoveException {
+        if (historySize == 0) {
+            throw new InvalidMoveException("No move to undo");
         }
-        return false;
+        unmakeMove();
     }
 
-    private boolean isOpponentPiece(ChessPiece piece, TeamColor teamColor) {
-        return piece != null && piece.getTeamColor() != teamColor;
+    /**
+     * Takes back the last move like undoMove, but without checking that there is one, for
+     * engines pairing it with makeMove(int)
+     */
+    public void unmakeMove() {
+        long undo = moveHistory[--historySize];
+        currentBoard.unmakeMove(undo);
+        halfmoveClock = (int) (undo >>> CLOCK_SHIFT);
+        if (ChessBoard.movedPiece(undo) / 6 == 0) {
+            setTeamTurn(TeamColor.WHITE);
+        } else {
+            fullmoveNumber--;
+            setTeamTurn(TeamColor.BLACK);
+        }
     }
 
-    private boolean canAttackKing(ChessPiece piece, ChessPosition piecePosition, ChessPosition kingPosition) {
-        Collection<ChessMove> possibleMoves = piece.pieceMoves(currentBoard, piecePosition);
-        for (ChessMove move : possibleMoves) {
-            if (move.getEndPosition().equals(kingPosition)) {
-                return true;
-            }
+    /**
+     * Adds every legal move of the team whose turn it is, packed as ints, so an engine can
+     * walk the move tree without a ChessMove per move
+     *
+     * @param moves the list to add to
+     */
+    public void generateMoves(MoveList moves) {
+        MoveGenerator.generateLegalMoves(currentBoard, currentTeamColor.ordinal(), moves);
+    }
+
+    /**
+     * Adds the legal captures of the team whose turn it is, including en passant and the
+     * king's captures, packed as ints
+     *
+     * @param moves the list to add to
+     */
+    public void generateCaptures(MoveList moves) {
+        MoveGenerator.generateLegalMoves(currentBoard, currentTeamColor.ordinal(), MoveGenerator.ALL_CAPTURES, moves);
+    }
+
+    /**
+     * @return the number of moves since the last capture or pawn move
+     */
+    public int getHalfmoveClock() {
+        return halfmoveClock;
+    }
+
+    /**
+     * @return the number of the current full move, starting at 1
+     */
+    public int getFullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    // used when loading a position that carries its own clocks
+    void setClocks(int halfmoveClock, int fullmoveNumber) {
+        this.halfmoveClock = halfmoveClock;
+        this.fullmoveNumber = fullmoveNumber;
+        cachedStatus = null;
+    }
+
+    /**
+     * Loads a position from Forsyth-Edwards Notation. The halfmove clock and fullmove number
+     * fields may be left off, in which case they are 0 and 1.
+     *
+     * @param fen the position, e.g. "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"
+     * @return a new game at that position, with no move history
+     * @throws IllegalArgumentException if the FEN can't be read
+     */
+    public static ChessGame fromFen(String fen) {
+        return Fen.parse(fen);
+    }
+
+    /**
+     * @return the current position in Forsyth-Edwards Notation
+     */
+    public String toFen() {
+        return Fen.format(this);
+    }
+
+    /**
+     * Encodes the position (pieces, turn, castling and en passant rights and both clocks) in
+     * at most 29 bytes for a legal chess position
+     *
+     * @return the encoded position, readable with fromBytes
+     */
+    public byte[] toBytes() {
+        return PositionCodec.encode(this);
+    }
+
+    /**
+     * @param bytes a position encoded with toBytes
+     * @return a new game at that position, with no move history
+     * @throws IllegalArgumentException if the bytes aren't an encoded position
+     */
+    public static ChessGame fromBytes(byte[] bytes) {
+        return PositionCodec.decode(bytes);
+    }
+
+    /**
+     * @return a game with its own copy of the board and the move history, so it can be
+     * searched or played on independently of this one, e.g. on another thread
+     */
+    public ChessGame copy() {
+        ChessGame copy = new ChessGame();
+        copy.currentTeamColor = currentTeamColor;
+        copy.currentBoard = currentBoard == null ? null : currentBoard.copy();
+        copy.isOver = isOver;
+        copy.moveHistory = Arrays.copyOf(moveHistory, moveHistory.length);
+        copy.keyHistory = Arrays.copyOf(keyHistory, keyHistory.length);
+        copy.historySize = historySize;
+        copy.halfmoveClock = halfmoveClock;
+        copy.fullmoveNumber = fullmoveNumber;
+        return copy;
+    }
+
+    /**
+     * @return the moves made since the board was set, oldest first
+     */
+    public List<ChessMove> getMoveHistory() {
+        List<ChessMove> history = new ArrayList<>(historySize);
+        for (int i = 0; i < historySize; i++) {
+            history.add(Move.toChessMove(ChessBoard.undoneMove(moveHistory[i])));
         }
-        return false;
+        return history;
     }
 
-    private ChessPosition findKingPos(TeamColor team) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPosition position = new ChessPosition(row + 1, col + 1); //i changed this to plus one bc get piece goes out of bounds
-                ChessPiece currPiece = currentBoard.getPiece(position);
-                if (currPiece != null && currPiece.getPieceType() == ChessPiece.PieceType.KING && currPiece.getTeamColor() == team) {
-                    return position;
-                }
-            }
+    // the undo records in use, without the spare capacity
+    long[] historyRecords() {
+        return Arrays.copyOf(moveHistory, historySize);
+    }
+
+    // after loading only the undo records in use: the keys of the positions they were made from
+    // aren't stored, so find them again by taking the moves back on a copy of the board
+    void restoreHistory() {
+        if (moveHistory == null) {
+            moveHistory = new long[0];
+        }
+        historySize = moveHistory.length;
+        keyHistory = new long[historySize];
+        ChessBoard board = currentBoard == null ? null : currentBoard.copy();
+        for (int i = historySize - 1; i >= 0 && board != null; i--) {
+            board.unmakeMove(moveHistory[i]);
+            boolean blackMoved = ChessBoard.movedPiece(moveHistory[i]) / 6 == 1;
+            keyHistory[i] = board.positionKey() ^ (blackMoved ? Zobrist.BLACK_TO_MOVE : 0);
         }
-        return null;
+    }
+
+    /**
+     * Checks the one move directly, without generating the piece's other moves
+     *
+     * @param move the move to check
+     * @return True if the team whose turn it is may make the move
+     */
+    public boolean isLegal(ChessMove move) {
+        return toLegalMove(move) != Move.NONE;
+    }
+
+    private int toLegalMove(ChessMove move) {
+        ChessPosition start = move.getStartPosition();
+        ChessPosition end = move.getEndPosition();
+        if (!isOnBoard(start) || !isOnBoard(end)) {
+            return Move.NONE;
+        }
+        ChessPiece.PieceType promotion = move.getPromotionPiece();
+        return MoveGenerator.legalMove(currentBoard, currentTeamColor.ordinal(), ChessBoard.squareIndex(start),
+                ChessBoard.squareIndex(end), promotion == null ? -1 : promotion.ordinal());
+    }
+
+    private static boolean isOnBoard(ChessPosition position) {
+        return position.getRow() >= 1 && position.getRow() <= 8
+                && position.getColumn() >= 1 && position.getColumn() <= 8;
+    }
+
+    /**
+     * Determines if the given team is in check
+     *
+     * @param teamColor which team to check for check
+     * @return True if the specified team is in check
+     */
+    public boolean isInCheck(TeamColor teamColor) {
+        return currentBoard.isInCheck(teamColor.ordinal());
+    }
+
+    private TeamColor otherTeam(TeamColor teamColor) {
+        return teamColor == TeamColor.WHITE ? TeamColor.BLACK : TeamColor.WHITE;
     }
 
     /**
@@ -181,40 +378,15 @@ public class ChessGame {
      * @return True if the specified team is in checkmate
      */
     public boolean isInCheckmate(TeamColor teamColor) {
+        if (teamColor == currentTeamColor) {
+            return status() == GameStatus.CHECKMATE;
+        }
         if (!isInCheck(teamColor)) {
             return false;
         }
 
         // Check if any move can get the team out of check
-        for (ChessPosition position : getTeamPiecePositions(teamColor)) {
-            ChessPiece pieceAtPos = currentBoard.getPiece(position);
-            if (canMakeValidMove(pieceAtPos, position, teamColor)) {
-                return false; // A move exists that gets the team out of check
-            }
-        }
-        return true; // No valid move to escape check, it's checkmate
-    }
-
-    private List<ChessPosition> getTeamPiecePositions(TeamColor teamColor) {
-        List<ChessPosition> positions = new ArrayList<>();
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                ChessPosition position = new ChessPosition(row + 1, col + 1);
-                ChessPiece piece = currentBoard.getPiece(position);
-                if (piece != null && piece.getTeamColor().equals(teamColor)) {
-                    positions.add(position);
-                }
-            }
-        }
-        return positions;
-    }
-
-    private boolean isSafeMove(ChessPosition startPos, ChessPosition endPos, TeamColor teamColor) {
-        ChessBoard originalBoardState = currentBoard.copy();
-        simulateMove(startPos, endPos);
-        boolean isSafe = !isInCheck(teamColor);
-        currentBoard = originalBoardState; // Revert to original board state
-        return isSafe;
+        return !hasValidMove(teamColor);
     }
 
     /**
@@ -225,32 +397,166 @@ public class ChessGame {
      * @return True if the specified team is in stalemate, otherwise false
      */
     public boolean isInStalemate(TeamColor teamColor) {
+        if (teamColor == currentTeamColor) {
+            return status() == GameStatus.STALEMATE;
+        }
         if (isInCheck(teamColor)) {
             return false; // Stalemate can't happen if the team is in check
         }
 
         // Check if any piece has valid moves that would keep the team out of check
-        for (ChessPosition position : getTeamPiecePositions(teamColor)) {
-            ChessPiece pieceAtPos = currentBoard.getPiece(position);
-            if (canMakeValidMove(pieceAtPos, position, teamColor)) {
-                return false; // If any piece can move without putting the team in check, it's not stalemate
+        return !hasValidMove(teamColor);
+    }
+
+    /**
+     * Works out the state of the game for the team whose turn it is in one pass, instead of
+     * a separate isInCheckmate, isInCheck and isInStalemate call each generating moves.
+     * Checkmate and stalemate come first; otherwise the game is drawn by insufficient
+     * material, the fifty-move rule or threefold repetition. The result is kept until the
+     * position or the turn changes.
+     *
+     * @return the status of the team whose turn it is
+     */
+    public GameStatus status() {
+        long key = zobristKey();
+        if (cachedStatus == null || cachedStatusKey != key) {
+            boolean inCheck = isInCheck(currentTeamColor);
+            if (!hasAnyLegalMove()) {
+                cachedStatus = inCheck ? GameStatus.CHECKMATE : GameStatus.STALEMATE;
+            } else if (currentBoard.hasInsufficientMaterial()) {
+                cachedStatus = GameStatus.INSUFFICIENT_MATERIAL;
+            } else if (halfmoveClock >= FIFTY_MOVE_LIMIT) {
+                cachedStatus = GameStatus.FIFTY_MOVE_RULE;
+            } else if (countRepetitions(key, 2) == 2) {
+                cachedStatus = GameStatus.THREEFOLD_REPETITION;
+            } else {
+                cachedStatus = inCheck ? GameStatus.CHECK : GameStatus.NORMAL;
             }
+            cachedStatusKey = key;
         }
+        return cachedStatus;
+    }
 
-        return true; // No valid moves, it's stalemate
+    /**
+     * A search treats a position it has already been through as a draw, since either side
+     * could repeat it again, rather than waiting for the third time.
+     *
+     * @return True if the current position, with the same team to move, came up earlier
+     * in the game
+     */
+    public boolean isRepetition() {
+        return countRepetitions(zobristKey(), 1) == 1;
     }
 
-    private boolean canMakeValidMove(ChessPiece piece, ChessPosition position, TeamColor teamColor) {
-        Collection<ChessMove> validMoves = piece.pieceMoves(currentBoard, position);
-        for (ChessMove move : validMoves) {
-            if (isSafeMove(position, move.getEndPosition(), teamColor)) {
-                return true; // Found a move that doesn't leave the team in check
+    // a position can only repeat since the last capture or pawn move, and only with the same
+    // team to move, so only every other key in that window is compared
+    private int countRepetitions(long key, int limit) {
+        int oldest = Math.max(0, historySize - halfmoveClock);
+        int repeats = 0;
+        for (int i = historySize - 2; i >= oldest && repeats < limit; i -= 2) {
+            if (keyHistory[i] == key) {
+                repeats++;
             }
         }
-        return false; // No valid moves found
+        return repeats;
+    }
+
+    /**
+     * Stops at the first legal move found, trying king moves, then captures, then quiet
+     * moves, so most positions are settled without generating the full move list.
+     *
+     * @return True if the team whose turn it is has at least one legal move
+     */
+    public boolean hasAnyLegalMove() {
+        return hasValidMove(currentTeamColor);
+    }
+
+    private boolean hasValidMove(TeamColor teamColor) {
+        legalMoves.reset(currentBoard, teamColor.ordinal());
+        return legalMoves.next() != Move.NONE;
     }
 
 
+    /**
+     * Counts the leaf nodes of the legal move tree from the current position, for the team
+     * whose turn it is. The board is played forward and back in place, so it is left as found.
+     *
+     * @param depth how many plies deep to count
+     * @return the number of move sequences of exactly that length
+     */
+    public long perft(int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        return perft(depth, currentTeamColor.ordinal(), 0);
+    }
+
+    /**
+     * Splits perft by the first move, which is how a wrong node count is narrowed down to
+     * the move the generator gets wrong.
+     *
+     * @param depth how many plies deep to count, including the first move
+     * @return the perft count below each legal first move, in generation order
+     */
+    public Map<ChessMove, Long> divide(int depth) {
+        Map<ChessMove, Long> counts = new LinkedHashMap<>();
+        if (depth <= 0) {
+            return counts;
+        }
+        int color = currentTeamColor.ordinal();
+        MoveList moves = movesForPly(0);
+        moves.clear();
+        MoveGenerator.generateLegalMoves(currentBoard, color, moves);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            long undo = currentBoard.makeMove(move);
+            counts.put(Move.toChessMove(move), depth == 1 ? 1 : perft(depth - 1, 1 - color, 1));
+            currentBoard.unmakeMove(undo);
+        }
+        return counts;
+    }
+
+    private long perft(int depth, int color, int ply) {
+        MoveList moves = movesForPly(ply);
+        moves.clear();
+        MoveGenerator.generateLegalMoves(currentBoard, color, moves);
+        if (depth == 1) {
+            return moves.size(); // every generated move is legal, so the leaves can just be counted
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            long undo = currentBoard.makeMove(moves.get(i));
+            nodes += perft(depth - 1, 1 - color, ply + 1);
+            currentBoard.unmakeMove(undo);
+        }
+        return nodes;
+    }
+
+    private MoveList movesForPly(int ply) {
+        if (ply >= plyMoves.length) {
+            MoveList[] grown = Arrays.copyOf(plyMoves, ply + 8);
+            for (int i = plyMoves.length; i < grown.length; i++) {
+                grown[i] = new MoveList();
+            }
+            plyMoves = grown;
+        }
+        return plyMoves[ply];
+    }
+
+    /**
+     * The board keeps its own key up to date as pieces are added and moved, so this is just
+     * that key with the castling rights, en passant square and side to move folded in.
+     *
+     * @return a 64-bit Zobrist key identifying the position and the side to move
+     */
+    public long zobristKey() {
+        long key = currentBoard.positionKey();
+        if (currentTeamColor == TeamColor.BLACK) {
+            key ^= Zobrist.BLACK_TO_MOVE;
+        }
+        return key;
+    }
+
     /**
      * Sets this game's chessboard with a given board
      *
@@ -258,6 +564,14 @@ public class ChessGame {
      */
     public void setBoard(ChessBoard board) {
         this.currentBoard = board;
+        historySize = 0;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        // a board built piece by piece has no history, so go by where the kings and rooks stand
+        if (board != null) {
+            board.inferCastlingRights();
+        }
+        cachedStatus = null;
     }
 
     /**
@@ -286,11 +600,14 @@ public class ChessGame {
             return false;
         }
         ChessGame chessGame = (ChessGame) o;
+        if (zobristKey() != chessGame.zobristKey()) {
+            return false;
+        }
         return currentTeamColor == chessGame.currentTeamColor && Objects.equals(currentBoard, chessGame.currentBoard);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(currentTeamColor, currentBoard);
+        return Long.hashCode(zobristKey());
     }
 }
@@ -0,0 +1,54 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.TypeAdapter;
+import com.google.gson.TypeAdapterFactory;
+import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+
+/**
+ * Gson form of a ChessGame: its fields as usual, but with the move history cut down to the
+ * undo records in use, a few bytes per ply. The history arrays grow by doubling, so written as
+ * they are they would carry their spare capacity and any moves already taken back. The keys
+ * of earlier positions are left out and rebuilt from the moves when the game is read.
+ * <p>
+ * Registered on ChessGame with @JsonAdapter, so every Gson in the client and server uses it.
+ */
+class ChessGameAdapterFactory implements TypeAdapterFactory {
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> TypeAdapter<T> create(Gson gson, TypeToken<T> type) {
+        if (type.getRawType() != ChessGame.class) {
+            return null;
+        }
+        TypeAdapter<ChessGame> fields = (TypeAdapter<ChessGame>) gson.getDelegateAdapter(this, type);
+        TypeAdapter<JsonElement> elements = gson.getAdapter(JsonElement.class);
+        return (TypeAdapter<T>) new TypeAdapter<ChessGame>() {
+            @Override
+            public void write(JsonWriter out, ChessGame game) throws IOException {
+                if (game == null) {
+                    out.nullValue();
+                    return;
+                }
+                JsonObject json = fields.toJsonTree(game).getAsJsonObject();
+                json.add("moveHistory", gson.toJsonTree(game.historyRecords()));
+                elements.write(out, json);
+            }
+
+            @Override
+            public ChessGame read(JsonReader in) throws IOException {
+                ChessGame game = fields.read(in);
+                if (game != null) {
+                    game.restoreHistory();
+                }
+                return game;
+            }
+        };
+    }
+}
@@ -3,7 +3,6 @@ package chess;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Objects;
-import java.util.HashSet;
 
 /**
  * Represents a single chess piece
@@ -15,7 +14,17 @@ public class ChessPiece {
 
     private final ChessGame.TeamColor pieceColor;
     private final PieceType type;
-    private static final int BOARD_SIZE = 8;
+
+    //there are only 12 distinct pieces, indexed by color * 6 + piece type like the board's piece sets
+    private static final ChessPiece[] FLYWEIGHTS = new ChessPiece[12];
+
+    static {
+        for (ChessGame.TeamColor color : ChessGame.TeamColor.values()) {
+            for (PieceType type : PieceType.values()) {
+                FLYWEIGHTS[color.ordinal() * 6 + type.ordinal()] = new ChessPiece(color, type);
+            }
+        }
+    }
 
 
     @Override
@@ -40,6 +49,20 @@ public class ChessPiece {
         this.type = type;
     }
 
+    /**
+     * Pieces are immutable, so the engine shares one instance per color and type
+     * instead of allocating a new one each time
+     *
+     * @return the shared piece for the color and type
+     */
+    public static ChessPiece of(ChessGame.TeamColor pieceColor, PieceType type) {
+        return FLYWEIGHTS[pieceColor.ordinal() * 6 + type.ordinal()];
+    }
+
+    static ChessPiece ofIndex(int pieceIndex) {
+        return FLYWEIGHTS[pieceIndex];
+    }
+
     /**
      * The various different chess piece options
      */
@@ -75,234 +98,26 @@ public class ChessPiece {
      * @return Collection of valid moves
      */
     public Collection<ChessMove> pieceMoves(ChessBoard board, ChessPosition myPosition) {
-        return switch (getPieceType()) {
-            case BISHOP -> bishopMoves(board, myPosition);
-            case ROOK -> rookMoves(board, myPosition);
-            case KING -> kingMoves(board, myPosition);
-            case QUEEN -> queenMoves(board, myPosition);
-            case KNIGHT -> knightMoves(board, myPosition);
-            case PAWN -> pawnMoves(board, myPosition);
-        };
-    }
-
-    private Collection<ChessMove> pawnMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> moves = new ArrayList<>();
-        ChessPiece currPiece = board.getPiece(myPosition);
-        ChessGame.TeamColor color = currPiece.getTeamColor();
-        int direction = (color.equals(ChessGame.TeamColor.WHITE)) ? 1 : -1; // White moves up, Black moves down
-        int startRow = myPosition.getRow(); // No need for zero-based indexing
-
-        // Forward move
-        ChessPosition forwardPos = new ChessPosition(myPosition.getRow() + direction, myPosition.getColumn());
-        if (isValidPosition(forwardPos) && board.getPiece(forwardPos) == null) {
-            if (isPromotionRow(forwardPos)) {
-                addPromotionMoves(moves, myPosition, forwardPos); // Handles promotion
-            } else {
-                moves.add(new ChessMove(myPosition, forwardPos, null)); // Regular forward move
-            }
-
-            // Two-step move from starting position
-            if (isPawnStartingRow(startRow, color)) {
-                ChessPosition twoForward = new ChessPosition(myPosition.getRow() + 2 * direction, myPosition.getColumn());
-                if (isValidPosition(twoForward) && board.getPiece(twoForward) == null) {
-                    moves.add(new ChessMove(myPosition, twoForward, null)); // Two-step forward move
-                }
-            }
-        }
-
-        // Diagonal captures
-        int[] sides = {-1, 1};
-        for (int side : sides) {
-            ChessPosition diagonal = new ChessPosition(myPosition.getRow() + direction, myPosition.getColumn() + side);
-            if (isValidPosition(diagonal)) {
-                ChessPiece pieceAtPosition = board.getPiece(diagonal);
-                if (pieceAtPosition != null && !pieceAtPosition.getTeamColor().equals(color)) {
-                    if (isPromotionRow(diagonal)) {
-                        addPromotionMoves(moves, myPosition, diagonal); // Capture with promotion
-                    } else {
-                        moves.add(new ChessMove(myPosition, diagonal, null)); // Regular capture
-                    }
-                }
-            }
-        }
-
-        return moves;
-    }
-
-    private boolean isValidPosition(ChessPosition position) {
-        return position.getRow() >= 1 && position.getRow() <= 8 && position.getColumn() >= 1 && position.getColumn() <= 8;
-    }
-
-    private boolean isPawnStartingRow(int row, ChessGame.TeamColor color) {
-        return (color.equals(ChessGame.TeamColor.WHITE) && row == 2) || (color.equals(ChessGame.TeamColor.BLACK) && row == 7);
-    }
-
-    private boolean isPromotionRow(ChessPosition position) {
-        return position.getRow() == 1 || position.getRow() == 8;
-    }
-
-    private void addPromotionMoves(Collection<ChessMove> moves, ChessPosition start, ChessPosition end) {
-        for (ChessPiece.PieceType promotionType : new ChessPiece.PieceType[]{
-                ChessPiece.PieceType.ROOK,
-                ChessPiece.PieceType.KNIGHT,
-                ChessPiece.PieceType.BISHOP,
-                ChessPiece.PieceType.QUEEN}) {
-            moves.add(new ChessMove(start, end, promotionType));
-        }
-    }
-    private Collection<ChessMove> knightMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> moves = new ArrayList<>();
-        int [][] directions  = {
-                {2,1},
-                {2,-1},
-                {1,2},
-                {1,-2},
-                {-2,1},
-                {-2,-1},
-                {-1,2},
-                {-1,-2}
-        };
-
-        for (int[] direction : directions) {
-            //move inside the for loop if it doesnt continue
-            int x = myPosition.getRow() -1;
-            int y = myPosition.getColumn() -1;
-            x += direction[0];
-            y += direction[1];
-            if (x < 0 || y < 0 || x > 7 || y > 7) {
-                continue;
-            }
-            ChessPosition newPosition = new ChessPosition(x + 1, y + 1);
-            ChessPiece pieceAtPosition = board.getPiece(newPosition);
-            if (pieceAtPosition != null) {
-                if (pieceAtPosition.getTeamColor() == pieceColor) {
-                    continue;
-                }
-                moves.add(new ChessMove(myPosition,newPosition,null));
-                continue;
-            }
-            moves.add(new ChessMove(myPosition,newPosition,null));
-        }
-        return moves;
-    }
-
-    private Collection<ChessMove> queenMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> moves = new HashSet<>();
-        moves.addAll(bishopMoves(board, myPosition)); // Add Bishop moves
-        moves.addAll(rookMoves(board, myPosition));   // Add Rook moves
-        return moves;
+        return generatedMoves(board, myPosition, type);
     }
 
     public Collection<ChessMove> bishopMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> moves = new ArrayList<>();
-        int[][] directions = {
-                {1, 1},  // top-right
-                {1, -1}, // top-left
-                {-1, 1}, // bottom-right
-                {-1, -1} // bottom-left
-        };
-
-        for (int[] direction : directions) {
-            int x = myPosition.getRow() - 1; // converting to 0 based
-            int y = myPosition.getColumn() - 1; //converting to 0 based
-
-            while (true) {
-                x += direction[0];
-                y += direction[1];
-                System.out.println("position: " + x + ", " + y);
-                //this is zero based (array)
-                if (x < 0 || x > 7 || y < 0 || y > 7) {
-                    System.out.println("x: " + x + ", y: " + y);
-                    break;
-                }
-                //if there is another piece, and the piece is the same color, add move
-                ChessPosition newPosition = new ChessPosition(x + 1, y + 1);
-                ChessPiece pieceAtPosition = board.getPiece(newPosition);
-                if (pieceAtPosition != null) {
-                    if (pieceAtPosition.getTeamColor().equals(getTeamColor())) {
-                        break;
-                    }
-                    moves.add(new ChessMove(myPosition, newPosition, null));
-                    break;
-                }
-                moves.add(new ChessMove(myPosition, newPosition, null));
-            }
-        }
-        return moves;
+        return generatedMoves(board, myPosition, PieceType.BISHOP);
     }
 
-    private Collection<ChessMove> rookMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> moves = new HashSet<>();
-        int[][] directions = {
-                {1, 0},  // Down
-                {-1, 0}, // Up
-                {0, 1},  // Right
-                {0, -1}  // Left
-        };
-
-        // Similar logic as bishopMoves for rook
-        for (int[] direction : directions) {
-            int x = myPosition.getRow() - 1; // Convert to 0-based
-            int y = myPosition.getColumn() - 1; // Convert to 0-based
-
-            while (true) {
-                x += direction[0];
-                y += direction[1];
-
-                if (x < 0 || x >= BOARD_SIZE || y < 0 || y >= BOARD_SIZE) {
-                    break; // Out of board bounds
-                }
-
-                ChessPosition newPosition = new ChessPosition(x + 1, y + 1); // Convert back to 1-based
-                ChessPiece pieceAtPosition = board.getPiece(newPosition);
-
-                if (pieceAtPosition != null) {
-                    if (pieceAtPosition.getTeamColor().equals(getTeamColor())) {
-                        break; // Blocked by same color piece
-                    }
-                    moves.add(new ChessMove(myPosition, newPosition, null)); // Capture move
-                    break;
-                }
-                moves.add(new ChessMove(myPosition, newPosition, null)); // Regular move
-            }
-        }
-        return moves;
+    public Collection<ChessMove> kingMoves(ChessBoard board, ChessPosition myPosition) {
+        return generatedMoves(board, myPosition, PieceType.KING);
     }
 
-    public Collection<ChessMove> kingMoves(ChessBoard board, ChessPosition myPosition) {
-        Collection<ChessMove> moves = new ArrayList<>();
-        int[][] directions = {
-                {1, 1},  // top-right
-                {1, -1}, // top-left
-                {-1, 1}, // bottom-right
-                {-1, -1}, // bottom-left
-                {1,0}, //up one
-                {-1,0}, //down one
-                {0,1}, // one right
-                {0,-1} // one left
-        };
-        for (int[] direction : directions) {
-            int x = myPosition.getRow() - 1;
-            int y = myPosition.getColumn() - 1;
-            x += direction[0];
-            y += direction[1];
-            if (x < 0 || x > 7 || y < 0 || y > 7) {
-                continue;
-            }
-            ChessPosition newPosition = new ChessPosition(x + 1, y + 1);
-            ChessPiece pieceAtPosition = board.getPiece(newPosition);
-            if (pieceAtPosition != null) {
-                if (pieceAtPosition.getTeamColor().equals(getTeamColor())) {
-                    System.out.println(pieceAtPosition.getTeamColor());
-                    continue;
-                }
-                moves.add(new ChessMove(myPosition, newPosition, null));
-                continue;
-            }
-            moves.add(new ChessMove(myPosition, newPosition, null));
+    // the engine's generator fills a packed move list; ChessMoves are only built here at the API boundary
+    private Collection<ChessMove> generatedMoves(ChessBoard board, ChessPosition myPosition, PieceType asType) {
+        MoveList packed = new MoveList(MoveList.MAX_PIECE_MOVES);
+        int pieceIndex = pieceColor.ordinal() * 6 + asType.ordinal();
+        MoveGenerator.generatePieceMoves(board, ChessBoard.squareIndex(myPosition), pieceIndex, packed);
+        Collection<ChessMove> moves = new ArrayList<>(packed.size());
+        for (int i = 0; i < packed.size(); i++) {
+            moves.add(Move.toChessMove(packed.get(i)));
         }
         return moves;
     }
 }
-
-
@@ -13,6 +13,15 @@ public class ChessPosition {
     private final int row;
     private final int col;
 
+    //one shared instance per on-board square, index (row - 1) * 8 + (col - 1)
+    private static final ChessPosition[] SQUARES = new ChessPosition[64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            SQUARES[square] = new ChessPosition(square / 8 + 1, square % 8 + 1);
+        }
+    }
+
     @Override
     public String toString() {
         return "[" + row + ", " + col + "]";
@@ -40,6 +49,23 @@ public class ChessPosition {
         this.col = col;
     }
 
+    /**
+     * Positions are immutable, so squares on the board come from a preallocated table.
+     * Off-board coordinates still get a new instance.
+     *
+     * @return the position for the row and column
+     */
+    public static ChessPosition of(int row, int col) {
+        if (row < 1 || row > 8 || col < 1 || col > 8) {
+            return new ChessPosition(row, col);
+        }
+        return SQUARES[(row - 1) * 8 + (col - 1)];
+    }
+
+    static ChessPosition ofSquare(int square) {
+        return SQUARES[square];
+    }
+
     /**
      * @return which row this position is in
      * 1 codes for the bottom row
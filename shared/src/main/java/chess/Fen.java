@@ -0,0 +1,136 @@
+package chess;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation: piece placement from row 8 down,
+ * side to move, castling rights, en passant square, halfmove clock and fullmove number.
+ */
+final class Fen {
+    private static final String CASTLING_CHARS = "KQkq";
+
+    private Fen() {
+    }
+
+    static ChessGame parse(String fen) {
+        String[] fields = fen.trim().split("\\s+");
+        if (fields.length < 4 || fields.length > 6) {
+            throw new IllegalArgumentException("FEN needs 4 to 6 fields: " + fen);
+        }
+
+        ChessBoard board = new ChessBoard();
+        String[] rows = fields[0].split("/");
+        if (rows.length != 8) {
+            throw new IllegalArgumentException("FEN placement needs 8 rows: " + fields[0]);
+        }
+        for (int i = 0; i < 8; i++) {
+            int row = 8 - i;
+            int column = 1;
+            for (char c : rows[i].toCharArray()) {
+                if (c >= '1' && c <= '8') {
+                    column += c - '0';
+                    continue;
+                }
+                int pieceIndex = ChessBoard.PIECE_CHARS.indexOf(c);
+                if (pieceIndex < 0 || column > 8) {
+                    throw new IllegalArgumentException("Bad FEN row: " + rows[i]);
+                }
+                board.addPiece(ChessPosition.of(row, column), ChessPiece.ofIndex(pieceIndex));
+                column++;
+            }
+            if (column != 9) {
+                throw new IllegalArgumentException("FEN row doesn't cover 8 squares: " + rows[i]);
+            }
+        }
+
+        ChessGame.TeamColor turn = switch (fields[1]) {
+            case "w" -> ChessGame.TeamColor.WHITE;
+            case "b" -> ChessGame.TeamColor.BLACK;
+            default -> throw new IllegalArgumentException("Bad side to move: " + fields[1]);
+        };
+
+        int rights = 0;
+        if (!fields[2].equals("-")) {
+            for (char c : fields[2].toCharArray()) {
+                int bit = CASTLING_CHARS.indexOf(c);
+                if (bit < 0) {
+                    throw new IllegalArgumentException("Bad castling rights: " + fields[2]);
+                }
+                rights |= 1 << bit;
+            }
+        }
+
+        int enPassant = fields[3].equals("-") ? -1 : parseSquare(fields[3]);
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn(turn);
+        board.setCastlingRights(rights);
+        board.setEnPassantSquare(enPassant);
+        try {
+            int halfmoveClock = fields.length > 4 ? Integer.parseInt(fields[4]) : 0;
+            int fullmoveNumber = fields.length > 5 ? Integer.parseInt(fields[5]) : 1;
+            game.setClocks(halfmoveClock, fullmoveNumber);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Bad move counters: " + fen, e);
+        }
+        return game;
+    }
+
+    static String format(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        StringBuilder sb = new StringBuilder();
+        for (int row = 8; row >= 1; row--) {
+            int empty = 0;
+            for (int column = 1; column <= 8; column++) {
+                int pieceIndex = board.pieceIndexAt(ChessBoard.squareIndex(row, column));
+                if (pieceIndex < 0) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    sb.append(empty);
+                    empty = 0;
+                }
+                sb.append(ChessBoard.PIECE_CHARS.charAt(pieceIndex));
+            }
+            if (empty > 0) {
+                sb.append(empty);
+            }
+            if (row > 1) {
+                sb.append('/');
+            }
+        }
+
+        sb.append(game.getTeamTurn() == ChessGame.TeamColor.WHITE ? " w " : " b ");
+        int rights = board.castlingRights();
+        if (rights == 0) {
+            sb.append('-');
+        }
+        for (int bit = 0; bit < 4; bit++) {
+            if ((rights & (1 << bit)) != 0) {
+                sb.append(CASTLING_CHARS.charAt(bit));
+            }
+        }
+
+        int enPassant = board.enPassantSquare();
+        sb.append(' ').append(enPassant < 0 ? "-" : formatSquare(enPassant));
+        sb.append(' ').append(game.getHalfmoveClock());
+        sb.append(' ').append(game.getFullmoveNumber());
+        return sb.toString();
+    }
+
+    private static int parseSquare(String square) {
+        if (square.length() != 2) {
+            throw new IllegalArgumentException("Bad square: " + square);
+        }
+        int column = square.charAt(0) - 'a' + 1;
+        int row = square.charAt(1) - '0';
+        if (column < 1 || column > 8 || row < 1 || row > 8) {
+            throw new IllegalArgumentException("Bad square: " + square);
+        }
+        return ChessBoard.squareIndex(row, column);
+    }
+
+    private static String formatSquare(int square) {
+        return "" + (char) ('a' + (square & 7)) + (char) ('1' + (square >>> 3));
+    }
+}
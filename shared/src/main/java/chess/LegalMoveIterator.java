@@ -0,0 +1,47 @@
+package chess;
+
+/**
+ * Hands out a team's legal moves one at a time, generating them a stage at a time: king
+ * moves, then captures, then quiet moves. A later stage is only generated once the earlier
+ * ones are used up, so a caller that only needs the first move (or the first few) doesn't
+ * pay for the whole move list.
+ * <p>
+ * The board must not change between {@link #reset} and the last call to {@link #next}.
+ */
+final class LegalMoveIterator {
+    private static final int[] STAGES = {
+            MoveGenerator.KING_MOVES, MoveGenerator.CAPTURES, MoveGenerator.QUIETS
+    };
+
+    private final MoveList moves = new MoveList();
+    private ChessBoard board;
+    private int color;
+    private int stage;
+    private int index;
+
+    /**
+     * Starts iterating over the legal moves of the color (0 white, 1 black)
+     */
+    void reset(ChessBoard board, int color) {
+        this.board = board;
+        this.color = color;
+        stage = 0;
+        index = 0;
+        moves.clear();
+    }
+
+    /**
+     * @return the next legal move, or {@link Move#NONE} once there are none left
+     */
+    int next() {
+        while (index == moves.size()) {
+            if (stage == STAGES.length) {
+                return Move.NONE;
+            }
+            moves.clear();
+            index = 0;
+            MoveGenerator.generateLegalMoves(board, color, STAGES[stage++], moves);
+        }
+        return moves.get(index++);
+    }
+}
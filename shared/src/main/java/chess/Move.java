@@ -0,0 +1,69 @@
+package chess;
+
+/**
+ * The engine's internal move format: a move packed into an int so move lists are plain
+ * int arrays and generating a move allocates nothing.
+ * <p>
+ * Bits 0-5 hold the start square, bits 6-11 the end square, bits 12-14 the promotion piece
+ * type (ordinal + 1, 0 for no promotion) and the bits above that are flags. The special
+ * moves are flagged so that making them doesn't have to work out what kind of move it is.
+ * ChessMove objects are only built from these at the public API boundary; an engine
+ * working below it, like the search, passes these around instead.
+ */
+public final class Move {
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 15;
+    // a pawn's two-square first move
+    public static final int DOUBLE_PUSH = 1 << 16;
+    // also flagged CAPTURE; the captured pawn is beside the start square, not on the end square
+    public static final int EN_PASSANT = 1 << 17;
+    // the king's move; the rook's move is implied by it
+    public static final int CASTLE = 1 << 18;
+
+    private static final ChessPiece.PieceType[] PIECE_TYPES = ChessPiece.PieceType.values();
+
+    private Move() {
+    }
+
+    public static int encode(int from, int to, int promotion, int flags) {
+        return from | to << 6 | (promotion + 1) << 12 | flags;
+    }
+
+    public static int encode(int from, int to, int flags) {
+        return from | to << 6 | flags;
+    }
+
+    public static int from(int move) {
+        return move & 0x3F;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 0x3F;
+    }
+
+    /**
+     * @return the promotion piece type's ordinal, or -1 if the move is not a promotion
+     */
+    public static int promotion(int move) {
+        return ((move >>> 12) & 0x7) - 1;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isEnPassant(int move) {
+        return (move & EN_PASSANT) != 0;
+    }
+
+    public static boolean isCastle(int move) {
+        return (move & CASTLE) != 0;
+    }
+
+    public static ChessMove toChessMove(int move) {
+        int promotion = promotion(move);
+        return new ChessMove(ChessPosition.ofSquare(from(move)), ChessPosition.ofSquare(to(move)),
+                promotion < 0 ? null : PIECE_TYPES[promotion]);
+    }
+}
@@ -0,0 +1,377 @@
+package chess;
+
+/**
+ * Move generation over the board's bitboards. Moves are written into a {@link MoveList} as
+ * packed ints, so generating moves allocates nothing.
+ * <p>
+ * The pseudo-legal generators, like ChessPiece.pieceMoves, don't account for leaving the
+ * king in danger. The legal generators work out the checking pieces, the pinned pieces and
+ * the squares that resolve a check once per position and only emit moves that respect them,
+ * so no move has to be played out to test it.
+ */
+final class MoveGenerator {
+    private static final long ROW_1 = 0xFFL;
+    private static final long ROW_8 = ROW_1 << 56;
+    private static final long ALL_SQUARES = -1L;
+    // white's king starts on e1; black's is 56 squares up on e8
+    private static final int KING_HOME = 4;
+
+    // the stages of legal move generation, which can be asked for separately or combined
+    static final int KING_MOVES = 1;
+    static final int CAPTURES = 2;
+    static final int QUIETS = 4;
+    static final int ALL_STAGES = KING_MOVES | CAPTURES | QUIETS;
+    // just the king's captures, for a capture-only search; already part of KING_MOVES
+    static final int KING_CAPTURES = 8;
+    static final int ALL_CAPTURES = CAPTURES | KING_CAPTURES;
+
+    // promotion choices, in the order they are generated
+    private static final int[] PROMOTIONS = {
+            ChessBoard.QUEEN, ChessBoard.ROOK, ChessBoard.BISHOP, ChessBoard.KNIGHT
+    };
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Adds the pseudo-legal moves of every piece of the color (0 white, 1 black)
+     */
+    static void generateMoves(ChessBoard board, int color, MoveList moves) {
+        for (int type = 0; type < 6; type++) {
+            int pieceIndex = color * 6 + type;
+            long pieces = board.pieceSet(pieceIndex);
+            while (pieces != 0) {
+                generatePieceMoves(board, Long.numberOfTrailingZeros(pieces), pieceIndex, moves);
+                pieces &= pieces - 1;
+            }
+        }
+    }
+
+    /**
+     * Adds the pseudo-legal moves of the given piece as if it stood on the square
+     */
+    static void generatePieceMoves(ChessBoard board, int square, int pieceIndex, MoveList moves) {
+        addPieceMoves(board, square, pieceIndex, ALL_SQUARES, moves);
+    }
+
+    /**
+     * Adds the legal moves of every piece of the color (0 white, 1 black)
+     */
+    static void generateLegalMoves(ChessBoard board, int color, MoveList moves) {
+        addLegalMoves(board, color, board.colorOccupancy(color), ALL_STAGES, moves);
+    }
+
+    /**
+     * Adds the legal moves of the color in the given stages: the king's moves, captures by
+     * the other pieces, and non-captures by the other pieces.
+     */
+    static void generateLegalMoves(ChessBoard board, int color, int stages, MoveList moves) {
+        addLegalMoves(board, color, board.colorOccupancy(color), stages, moves);
+    }
+
+    /**
+     * Adds the legal moves of the piece on the square, for that piece's team
+     */
+    static void generateLegalPieceMoves(ChessBoard board, int square, MoveList moves) {
+        int pieceIndex = board.pieceIndexAt(square);
+        if (pieceIndex >= 0) {
+            addLegalMoves(board, pieceIndex / 6, 1L << square, ALL_STAGES, moves);
+        }
+    }
+
+    private static void addLegalMoves(ChessBoard board, int color, long movers, int stages, MoveList moves) {
+        int enemy = 1 - color;
+        long targets = 0;
+        if ((stages & CAPTURES) != 0) {
+            targets |= board.colorOccupancy(enemy);
+        }
+        if ((stages & QUIETS) != 0) {
+            targets |= ~board.getOccupancy();
+        }
+
+        int king = board.kingSquare(color);
+        if (king < 0) {
+            // nothing to leave in check, so every pseudo-legal move is legal
+            addPseudoLegalMoves(board, movers, targets, moves);
+            if ((stages & CAPTURES) != 0) {
+                addEnPassant(board, color, movers, false, moves);
+            }
+            return;
+        }
+
+        long kingBit = 1L << king;
+        long checkers = board.attackersTo(king, enemy);
+        if ((movers & kingBit) != 0) {
+            if ((stages & KING_MOVES) != 0) {
+                addKingMoves(board, king, color, ~board.colorOccupancy(color), moves);
+                if (checkers == 0) {
+                    addCastles(board, color, moves);
+                }
+            } else if ((stages & KING_CAPTURES) != 0) {
+                addKingMoves(board, king, color, board.colorOccupancy(enemy), moves);
+            }
+        }
+        if ((checkers & (checkers - 1)) != 0) {
+            return; // double check: only the king can move
+        }
+        if ((stages & CAPTURES) != 0) {
+            addEnPassant(board, color, movers, true, moves);
+        }
+        if (targets == 0) {
+            return;
+        }
+
+        // with one checker, a move must capture it or block its ray to the king
+        long evasions = checkers == 0
+                ? targets
+                : targets & (checkers | Bitboards.between(king, Long.numberOfTrailingZeros(checkers)));
+        long pinned = pinnedPieces(board, color, king);
+
+        long pieces = movers & ~kingBit;
+        while (pieces != 0) {
+            int from = Long.numberOfTrailingZeros(pieces);
+            pieces &= pieces - 1;
+            long allowed = evasions;
+            if ((pinned & (1L << from)) != 0) {
+                // a pinned piece may only slide along the line through its king and pinner
+                allowed &= Bitboards.line(king, from);
+            }
+            if (allowed != 0) {
+                addPieceMoves(board, from, board.pieceIndexAt(from), allowed, moves);
+            }
+        }
+    }
+
+    private static void addPseudoLegalMoves(ChessBoard board, long movers, long targets, MoveList moves) {
+        while (movers != 0) {
+            int from = Long.numberOfTrailingZeros(movers);
+            addPieceMoves(board, from, board.pieceIndexAt(from), targets, moves);
+            movers &= movers - 1;
+        }
+    }
+
+    private static void addKingMoves(ChessBoard board, int king, int color, long allowed, MoveList moves) {
+        int enemy = 1 - color;
+        // lift the king off the board so squares further along a checking ray count as attacked
+        long occupancy = board.getOccupancy() ^ (1L << king);
+        long targets = Bitboards.kingAttacks(king) & allowed;
+        long enemies = board.colorOccupancy(enemy);
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            targets &= targets - 1;
+            if (!board.isSquareAttacked(to, enemy, occupancy)) {
+                moves.add(Move.encode(king, to, (enemies & (1L << to)) != 0 ? Move.CAPTURE : 0));
+            }
+        }
+    }
+
+    private static void addCastles(ChessBoard board, int color, MoveList moves) {
+        int home = color == 0 ? KING_HOME : KING_HOME + 56;
+        long targets = castlingTargets(board, color);
+        while (targets != 0) {
+            moves.add(Move.encode(home, Long.numberOfTrailingZeros(targets), Move.CASTLE));
+            targets &= targets - 1;
+        }
+    }
+
+    /**
+     * Castling needs the right (the king and that rook haven't moved), the rook still in its
+     * corner, nothing between them, and the two squares the king crosses or lands on not under
+     * attack. The caller checks that the king isn't in check now.
+     *
+     * @return the squares the color's king can castle to
+     */
+    private static long castlingTargets(ChessBoard board, int color) {
+        int rights = (board.castlingRights() >>> (color * 2)) & 3;
+        int home = color == 0 ? KING_HOME : KING_HOME + 56;
+        if (rights == 0 || (board.pieceSet(color * 6 + ChessBoard.KING) & (1L << home)) == 0) {
+            return 0;
+        }
+        int enemy = 1 - color;
+        long occupied = board.getOccupancy();
+        long rooks = board.pieceSet(color * 6 + ChessBoard.ROOK);
+        long targets = 0;
+        if ((rights & ChessBoard.WHITE_KINGSIDE) != 0 && (rooks & (1L << (home + 3))) != 0
+                && (occupied & (3L << (home + 1))) == 0
+                && !board.isSquareAttacked(home + 1, enemy) && !board.isSquareAttacked(home + 2, enemy)) {
+            targets |= 1L << (home + 2);
+        }
+        if ((rights & ChessBoard.WHITE_QUEENSIDE) != 0 && (rooks & (1L << (home - 4))) != 0
+                && (occupied & (7L << (home - 3))) == 0
+                && !board.isSquareAttacked(home - 1, enemy) && !board.isSquareAttacked(home - 2, enemy)) {
+            targets |= 1L << (home - 2);
+        }
+        return targets;
+    }
+
+    // en passant can uncover an attack along the row both pawns leave, which no pin mask
+    // describes, so each capture is played out to check it
+    private static void addEnPassant(ChessBoard board, int color, long movers, boolean hasKing, MoveList moves) {
+        int target = board.enPassantSquare();
+        // white takes en passant onto row 6, black onto row 3
+        if (target < 0 || (target >= 32) != (color == 0)) {
+            return;
+        }
+        long pawns = Bitboards.pawnAttacks(1 - color, target) & board.pieceSet(color * 6 + ChessBoard.PAWN) & movers;
+        while (pawns != 0) {
+            int move = Move.encode(Long.numberOfTrailingZeros(pawns), target, Move.CAPTURE | Move.EN_PASSANT);
+            if (!hasKing || isSafe(board, move, color)) {
+                moves.add(move);
+            }
+            pawns &= pawns - 1;
+        }
+    }
+
+    private static boolean isSafe(ChessBoard board, int move, int color) {
+        long undo = board.makeMove(move);
+        boolean safe = !board.isInCheck(color);
+        board.unmakeMove(undo);
+        return safe;
+    }
+
+    // own pieces that are the only thing between the king and an enemy slider
+    private static long pinnedPieces(ChessBoard board, int color, int king) {
+        int base = (1 - color) * 6;
+        long queens = board.pieceSet(base + ChessBoard.QUEEN);
+        long snipers = (Bitboards.rookAttacks(king, 0) & (board.pieceSet(base + ChessBoard.ROOK) | queens))
+                | (Bitboards.bishopAttacks(king, 0) & (board.pieceSet(base + ChessBoard.BISHOP) | queens));
+        long occupied = board.getOccupancy();
+        long own = board.colorOccupancy(color);
+        long pinned = 0;
+        while (snipers != 0) {
+            long blockers = Bitboards.between(king, Long.numberOfTrailingZeros(snipers)) & occupied;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0 && (blockers & own) != 0) {
+                pinned |= blockers;
+            }
+            snipers &= snipers - 1;
+        }
+        return pinned;
+    }
+
+    /**
+     * Checks a single move without generating any others: the piece on from must belong to
+     * the color, be able to reach to, carry a promotion exactly when a pawn reaches the last
+     * row, and not leave its own king in check.
+     *
+     * @param promotion the promotion piece type's ordinal, or -1 for none
+     * @return the packed move, or {@link Move#NONE} if it isn't legal
+     */
+    static int legalMove(ChessBoard board, int color, int from, int to, int promotion) {
+        int pieceIndex = board.pieceIndexAt(from);
+        if (pieceIndex < 0 || pieceIndex / 6 != color) {
+            return Move.NONE;
+        }
+        int type = pieceIndex % 6;
+        long toBit = 1L << to;
+        int king = board.kingSquare(color);
+        if (type == ChessBoard.KING && Math.abs(to - from) == 2) {
+            boolean canCastle = promotion < 0 && (castlingTargets(board, color) & toBit) != 0
+                    && !board.isInCheck(color);
+            return canCastle ? Move.encode(from, to, Move.CASTLE) : Move.NONE;
+        }
+        if (type == ChessBoard.PAWN && promotion < 0 && to == board.enPassantSquare() && (to >= 32) == (color == 0)
+                && (Bitboards.pawnAttacks(color, from) & toBit) != 0) {
+            int move = Move.encode(from, to, Move.CAPTURE | Move.EN_PASSANT);
+            return king < 0 || isSafe(board, move, color) ? move : Move.NONE;
+        }
+
+        if ((pieceTargets(board, from, pieceIndex) & toBit) == 0) {
+            return Move.NONE;
+        }
+        boolean promotes = type == ChessBoard.PAWN && (toBit & (ROW_1 | ROW_8)) != 0;
+        if (promotes != (promotion >= 0) || promotion == ChessBoard.KING || promotion == ChessBoard.PAWN) {
+            return Move.NONE;
+        }
+        int flags = (board.colorOccupancy(1 - color) & toBit) != 0 ? Move.CAPTURE : 0;
+        if (type == ChessBoard.PAWN && Math.abs(to - from) == 16) {
+            flags |= Move.DOUBLE_PUSH;
+        }
+        int move = promotes ? Move.encode(from, to, promotion, flags) : Move.encode(from, to, flags);
+
+        if (king < 0) {
+            return move;
+        }
+        if (king == from) {
+            long occupancy = board.getOccupancy() ^ (1L << from);
+            return board.isSquareAttacked(to, 1 - color, occupancy) ? Move.NONE : move;
+        }
+        return isSafe(board, move, color) ? move : Move.NONE;
+    }
+
+    // adds the piece's moves whose target is in allowed
+    private static void addPieceMoves(ChessBoard board, int square, int pieceIndex, long allowed, MoveList moves) {
+        long enemy = board.colorOccupancy(1 - pieceIndex / 6);
+        long targets = pieceTargets(board, square, pieceIndex) & allowed;
+        if (pieceIndex % 6 == ChessBoard.PAWN) {
+            long bit = 1L << square;
+            long singlePush = pieceIndex < 6 ? bit << 8 : bit >>> 8;
+            long pushes = targets & ~enemy;
+            addPawnTargets(square, pushes & singlePush, 0, moves);
+            addPawnTargets(square, pushes & ~singlePush, Move.DOUBLE_PUSH, moves);
+            addPawnTargets(square, targets & enemy, Move.CAPTURE, moves);
+        } else {
+            addMoves(square, targets, enemy, moves);
+        }
+    }
+
+    // every square the piece could move to, ignoring its own king's safety
+    private static long pieceTargets(ChessBoard board, int square, int pieceIndex) {
+        int color = pieceIndex / 6;
+        int type = pieceIndex % 6;
+        long occupied = board.getOccupancy();
+
+        if (type == ChessBoard.PAWN) {
+            return pawnPushes(square, color, occupied)
+                    | (Bitboards.pawnAttacks(color, square) & board.colorOccupancy(1 - color));
+        }
+
+        long attacks;
+        if (type == ChessBoard.KNIGHT) {
+            attacks = Bitboards.knightAttacks(square);
+        } else if (type == ChessBoard.KING) {
+            attacks = Bitboards.kingAttacks(square);
+        } else if (type == ChessBoard.BISHOP) {
+            attacks = Bitboards.bishopAttacks(square, occupied);
+        } else if (type == ChessBoard.ROOK) {
+            attacks = Bitboards.rookAttacks(square, occupied);
+        } else {
+            attacks = Bitboards.queenAttacks(square, occupied);
+        }
+        return attacks & ~board.colorOccupancy(color);
+    }
+
+    private static void addMoves(int from, long targets, long enemy, MoveList moves) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            long bit = targets & -targets;
+            moves.add(Move.encode(from, to, (enemy & bit) != 0 ? Move.CAPTURE : 0));
+            targets ^= bit;
+        }
+    }
+
+    private static long pawnPushes(int from, int color, long occupied) {
+        long bit = 1L << from;
+        long empty = ~occupied;
+        if (color == 0) {
+            long single = (bit << 8) & empty;
+            // only from the starting row (row 2), and both squares must be empty
+            return single | (((single & (ROW_1 << 16)) << 8) & empty);
+        }
+        long single = (bit >>> 8) & empty;
+        return single | (((single & (ROW_1 << 40)) >>> 8) & empty);
+    }
+
+    private static void addPawnTargets(int from, long targets, int flags, MoveList moves) {
+        while (targets != 0) {
+            int to = Long.numberOfTrailingZeros(targets);
+            if (((1L << to) & (ROW_1 | ROW_8)) != 0) {
+                for (int promotion : PROMOTIONS) {
+                    moves.add(Move.encode(from, to, promotion, flags));
+                }
+            } else {
+                moves.add(Move.encode(from, to, flags));
+            }
+            targets &= targets - 1;
+        }
+    }
+}
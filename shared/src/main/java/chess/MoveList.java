@@ -0,0 +1,49 @@
+package chess;
+
+/**
+ * A reusable list of packed moves (see {@link Move}) backed by an int array.
+ * Clearing and refilling it never allocates.
+ */
+public final class MoveList {
+    // no legal chess position has more than 218 moves
+    public static final int MAX_MOVES = 256;
+    // a queen in the middle of an open board has the most moves of any single piece: 27
+    public static final int MAX_PIECE_MOVES = 32;
+
+    private final int[] moves;
+    private int size;
+
+    public MoveList() {
+        this(MAX_MOVES);
+    }
+
+    public MoveList(int capacity) {
+        moves = new int[capacity];
+    }
+
+    public void add(int move) {
+        moves[size++] = move;
+    }
+
+    public int get(int index) {
+        return moves[index];
+    }
+
+    public void swap(int i, int j) {
+        int move = moves[i];
+        moves[i] = moves[j];
+        moves[j] = move;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+}
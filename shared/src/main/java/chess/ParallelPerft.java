@@ -0,0 +1,165 @@
+package chess;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft on a ForkJoinPool. The move tree is split into a subtask per move at the root and at
+ * the ply below it; below that each subtask counts its subtree serially. Every subtask
+ * plays its moves on its own copy of the board, so no two threads ever touch the same board,
+ * and the counts are summed as the subtasks are joined.
+ * <p>
+ * With a hash table, the count below every position searched to a given depth is kept, so a
+ * position reached again by another move order is counted once. The table is shared by all
+ * threads without locks, the same way the search's transposition table is: an entry torn by
+ * two threads writing at once fails its XOR check and reads as a miss.
+ */
+public final class ParallelPerft {
+    // the subtasks split on every move down to this many plies from the root...
+    private static final int SPLIT_PLIES = 2;
+    // ...as long as they still have this much depth left to count
+    private static final int MIN_SPLIT_DEPTH = 3;
+    // mixed into the position key so counts at different depths don't share entries
+    private static final long DEPTH_KEY = 0x9E3779B97F4A7C15L;
+    private static final long MISS = -1;
+
+    private final ForkJoinPool pool;
+    private final long[] table;
+    private final int mask;
+
+    /**
+     * Counts on the common pool without a hash table
+     */
+    public ParallelPerft() {
+        this(ForkJoinPool.commonPool(), 0);
+    }
+
+    /**
+     * @param pool          the pool to run the subtasks on
+     * @param hashMegabytes the memory for the perft hash table, or 0 for none
+     */
+    public ParallelPerft(ForkJoinPool pool, int hashMegabytes) {
+        if (hashMegabytes < 0) {
+            throw new IllegalArgumentException("The hash table size can't be negative");
+        }
+        this.pool = pool;
+        if (hashMegabytes == 0) {
+            table = null;
+            mask = 0;
+        } else {
+            // two longs an entry: the key XORed with the count, and the count
+            long entries = Long.highestOneBit((long) hashMegabytes * 1024 * 1024 / 16);
+            int capacity = (int) Math.min(entries, 1 << 29);
+            table = new long[capacity * 2];
+            mask = capacity - 1;
+        }
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree from the game's position, like
+     * {@link ChessGame#perft}. The game itself is not touched.
+     *
+     * @param game  the position to count from, for the team whose turn it is
+     * @param depth how many plies deep to count
+     * @return the number of move sequences of exactly that length
+     */
+    public long perft(ChessGame game, int depth) {
+        if (depth <= 0) {
+            return 1;
+        }
+        return pool.invoke(new PerftTask(game.getBoard().copy(), game.getTeamTurn().ordinal(), depth, 0));
+    }
+
+    private final class PerftTask extends RecursiveTask<Long> {
+        private final ChessBoard board;
+        private final int color;
+        private final int depth;
+        private final int ply;
+
+        PerftTask(ChessBoard board, int color, int depth, int ply) {
+            this.board = board;
+            this.color = color;
+            this.depth = depth;
+            this.ply = ply;
+        }
+
+        @Override
+        protected Long compute() {
+            if (ply >= SPLIT_PLIES || depth < MIN_SPLIT_DEPTH) {
+                MoveList[] plyMoves = new MoveList[depth];
+                for (int i = 0; i < depth; i++) {
+                    plyMoves[i] = new MoveList();
+                }
+                return count(board, color, depth, plyMoves);
+            }
+
+            long key = key(board, color, depth);
+            long nodes = probe(key);
+            if (nodes != MISS) {
+                return nodes;
+            }
+            MoveList moves = new MoveList();
+            MoveGenerator.generateLegalMoves(board, color, moves);
+            List<PerftTask> subtasks = new ArrayList<>(moves.size());
+            for (int i = 0; i < moves.size(); i++) {
+                ChessBoard child = board.copy();
+                child.makeMove(moves.get(i));
+                subtasks.add(new PerftTask(child, 1 - color, depth - 1, ply + 1));
+            }
+            nodes = 0;
+            for (PerftTask subtask : invokeAll(subtasks)) {
+                nodes += subtask.join();
+            }
+            store(key, nodes);
+            return nodes;
+        }
+    }
+
+    // the serial count below the split plies, on the subtask's own board
+    private long count(ChessBoard board, int color, int depth, MoveList[] plyMoves) {
+        MoveList moves = plyMoves[depth - 1];
+        moves.clear();
+        if (depth == 1) {
+            MoveGenerator.generateLegalMoves(board, color, moves);
+            return moves.size();
+        }
+        long key = key(board, color, depth);
+        long nodes = probe(key);
+        if (nodes != MISS) {
+            return nodes;
+        }
+        MoveGenerator.generateLegalMoves(board, color, moves);
+        nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            long undo = board.makeMove(moves.get(i));
+            nodes += count(board, 1 - color, depth - 1, plyMoves);
+            board.unmakeMove(undo);
+        }
+        store(key, nodes);
+        return nodes;
+    }
+
+    private static long key(ChessBoard board, int color, int depth) {
+        long key = board.positionKey() ^ depth * DEPTH_KEY;
+        return color == 0 ? key : key ^ Zobrist.BLACK_TO_MOVE;
+    }
+
+    private long probe(long key) {
+        if (table == null) {
+            return MISS;
+        }
+        int index = ((int) key & mask) * 2;
+        long nodes = table[index + 1];
+        return (table[index] ^ nodes) == key ? nodes : MISS;
+    }
+
+    private void store(long key, long nodes) {
+        if (table != null) {
+            int index = ((int) key & mask) * 2;
+            table[index] = key ^ nodes;
+            table[index + 1] = nodes;
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package chess;
+
+/**
+ * A compact binary form of a position, for storage, cache keys and sending over the wire.
+ * <p>
+ * Bytes 0-7 are the occupancy bitboard (big-endian). Byte 8 holds the side to move in bit 0
+ * and the castling rights in bits 1-4, byte 9 the en passant square (0 for none), byte 10
+ * the halfmove clock (capped at 255) and bytes 11-12 the fullmove number. After that each
+ * occupied square, from a1 up, gets a 4-bit piece set index, low nibble first. A legal
+ * position has at most 32 pieces, so it takes at most 13 + 16 = 29 bytes.
+ */
+final class PositionCodec {
+    private static final int HEADER_SIZE = 13;
+
+    private PositionCodec() {
+    }
+
+    static byte[] encode(ChessGame game) {
+        ChessBoard board = game.getBoard();
+        long occupied = board.getOccupancy();
+        int pieces = Long.bitCount(occupied);
+        byte[] bytes = new byte[HEADER_SIZE + (pieces + 1) / 2];
+
+        for (int i = 0; i < 8; i++) {
+            bytes[i] = (byte) (occupied >>> (56 - 8 * i));
+        }
+        int black = game.getTeamTurn() == ChessGame.TeamColor.BLACK ? 1 : 0;
+        bytes[8] = (byte) (black | board.castlingRights() << 1);
+        bytes[9] = (byte) Math.max(0, board.enPassantSquare());
+        bytes[10] = (byte) Math.min(255, game.getHalfmoveClock());
+        bytes[11] = (byte) (game.getFullmoveNumber() >>> 8);
+        bytes[12] = (byte) game.getFullmoveNumber();
+
+        int nibble = 0;
+        for (long rest = occupied; rest != 0; rest &= rest - 1, nibble++) {
+            int pieceIndex = board.pieceIndexAt(Long.numberOfTrailingZeros(rest));
+            bytes[HEADER_SIZE + nibble / 2] |= (byte) (pieceIndex << (4 * (nibble & 1)));
+        }
+        return bytes;
+    }
+
+    static ChessGame decode(byte[] bytes) {
+        if (bytes.length < HEADER_SIZE) {
+            throw new IllegalArgumentException("Encoded position is too short");
+        }
+        long occupied = 0;
+        for (int i = 0; i < 8; i++) {
+            occupied = occupied << 8 | (bytes[i] & 0xFF);
+        }
+        int pieces = Long.bitCount(occupied);
+        if (bytes.length != HEADER_SIZE + (pieces + 1) / 2) {
+            throw new IllegalArgumentException("Encoded position has the wrong length for its pieces");
+        }
+
+        ChessBoard board = new ChessBoard();
+        int nibble = 0;
+        for (long rest = occupied; rest != 0; rest &= rest - 1, nibble++) {
+            int pieceIndex = (bytes[HEADER_SIZE + nibble / 2] >>> (4 * (nibble & 1))) & 0xF;
+            if (pieceIndex >= ChessBoard.NUM_PIECE_SETS) {
+                throw new IllegalArgumentException("Encoded position has a bad piece");
+            }
+            board.addPiece(ChessPosition.ofSquare(Long.numberOfTrailingZeros(rest)), ChessPiece.ofIndex(pieceIndex));
+        }
+
+        ChessGame game = new ChessGame();
+        game.setBoard(board);
+        game.setTeamTurn((bytes[8] & 1) == 0 ? ChessGame.TeamColor.WHITE : ChessGame.TeamColor.BLACK);
+        board.setCastlingRights((bytes[8] >>> 1) & ChessBoard.ALL_CASTLING);
+        int enPassant = bytes[9] & 0x3F;
+        board.setEnPassantSquare(enPassant == 0 ? -1 : enPassant);
+        game.setClocks(bytes[10] & 0xFF, (bytes[11] & 0xFF) << 8 | (bytes[12] & 0xFF));
+        return game;
+    }
+}
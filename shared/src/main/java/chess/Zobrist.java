@@ -0,0 +1,55 @@
+package chess;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random keys for Zobrist hashing. A position's key is the XOR of the key for every
+ * (piece, square) pair on the board, a key for the castling rights still held, a key for the
+ * en passant file if there is one, and the side-to-move key when black is on move, so
+ * adding, removing or moving a piece updates it with one or two XORs.
+ * <p>
+ * The keys come from a fixed seed, so the same position has the same key in every JVM and
+ * keys can be stored and compared across servers.
+ */
+final class Zobrist {
+    // indexed by piece set index * 64 + square
+    private static final long[] PIECE_SQUARE = new long[ChessBoard.NUM_PIECE_SETS * 64];
+    static final long BLACK_TO_MOVE;
+    // indexed by the castling rights bits; no rights hashes to 0
+    private static final long[] CASTLING = new long[16];
+    // indexed by the file of the en passant square
+    private static final long[] EN_PASSANT = new long[8];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x2F0B_81A7_C3D5_E9F1L);
+        for (int i = 0; i < PIECE_SQUARE.length; i++) {
+            PIECE_SQUARE[i] = random.nextLong();
+        }
+        BLACK_TO_MOVE = random.nextLong();
+        // drawn after the older keys so adding these didn't change any piece or side key
+        for (int i = 1; i < CASTLING.length; i++) {
+            CASTLING[i] = random.nextLong();
+        }
+        for (int i = 0; i < EN_PASSANT.length; i++) {
+            EN_PASSANT[i] = random.nextLong();
+        }
+    }
+
+    private Zobrist() {
+    }
+
+    static long piece(int pieceIndex, int square) {
+        return PIECE_SQUARE[pieceIndex << 6 | square];
+    }
+
+    static long castling(int rights) {
+        return CASTLING[rights];
+    }
+
+    /**
+     * @return the key for an en passant square, or 0 for none (square -1)
+     */
+    static long enPassant(int square) {
+        return square < 0 ? 0 : EN_PASSANT[square & 7];
+    }
+}
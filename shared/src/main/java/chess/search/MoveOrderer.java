@@ -0,0 +1,145 @@
+package chess.search;
+
+import chess.ChessBoard;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import chess.Move;
+import chess.MoveList;
+
+/**
+ * Puts the moves most likely to cause a cutoff first. Each move gets a score: the hash move
+ * (the transposition table's or the principal variation's) first, then captures by most
+ * valuable victim and least valuable attacker, then the two killer moves that last caused a
+ * cutoff at the same ply, then every other move by how often it has caused cutoffs anywhere
+ * (the history table, indexed by side, start square and end square).
+ * <p>
+ * The scores go in a preallocated int array per ply, and the moves are handed out by a
+ * selection sort that finds the best remaining move on each call, so a node that cuts off
+ * after its first move or two never sorts the rest and nothing is allocated.
+ */
+final class MoveOrderer {
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 24;
+    private static final int FIRST_KILLER_SCORE = CAPTURE_SCORE - 1;
+    private static final int SECOND_KILLER_SCORE = CAPTURE_SCORE - 2;
+    // history scores are halved whenever one reaches this, so they stay below the killers
+    private static final int HISTORY_LIMIT = 1 << 16;
+
+    // a piece's worth for MVV-LVA, by type ordinal: king, queen, bishop, knight, rook, pawn
+    private static final int[] RANK = {6, 5, 3, 2, 4, 1};
+    private static final int QUEEN = ChessPiece.PieceType.QUEEN.ordinal();
+    private static final int PAWN = ChessPiece.PieceType.PAWN.ordinal();
+
+    private final int[][] scores = new int[Search.MAX_PLY][MoveList.MAX_MOVES];
+    private final int[][] killers = new int[Search.MAX_PLY][2];
+    private final int[] history = new int[2 * 64 * 64];
+
+    /**
+     * Forgets the killers, which belong to the positions of the last search, and halves the
+     * history so it still helps but the new search's cutoffs soon outweigh it
+     */
+    void newSearch() {
+        for (int[] plyKillers : killers) {
+            plyKillers[0] = Move.NONE;
+            plyKillers[1] = Move.NONE;
+        }
+        ageHistory();
+    }
+
+    /**
+     * Scores the moves generated at the ply, ready for {@link #next}
+     *
+     * @param hashMove the move to try first, or Move.NONE
+     * @param color    the side to move, 0 white and 1 black
+     */
+    void score(MoveList moves, int ply, int hashMove, ChessBoard board, int color) {
+        int[] plyScores = scores[ply];
+        int[] plyKillers = killers[ply];
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            int score;
+            if (move == hashMove) {
+                score = HASH_MOVE_SCORE;
+            } else if (Move.isCapture(move) || Move.promotion(move) == QUEEN) {
+                score = CAPTURE_SCORE + mvvLva(move, board);
+            } else if (move == plyKillers[0]) {
+                score = FIRST_KILLER_SCORE;
+            } else if (move == plyKillers[1]) {
+                score = SECOND_KILLER_SCORE;
+            } else {
+                score = history[historyIndex(move, color)];
+            }
+            plyScores[i] = score;
+        }
+    }
+
+    /**
+     * One step of a selection sort: swaps the best of the moves from index on into index
+     *
+     * @return the move now at index
+     */
+    int next(MoveList moves, int ply, int index) {
+        int[] plyScores = scores[ply];
+        int best = index;
+        for (int i = index + 1; i < moves.size(); i++) {
+            if (plyScores[i] > plyScores[best]) {
+                best = i;
+            }
+        }
+        if (best != index) {
+            moves.swap(index, best);
+            int score = plyScores[index];
+            plyScores[index] = plyScores[best];
+            plyScores[best] = score;
+        }
+        return moves.get(index);
+    }
+
+    /**
+     * Records a quiet move that caused a cutoff, as a killer for the ply and in the history
+     * table, weighted by the depth it was searched to
+     */
+    void cutoff(int move, int ply, int depth, int color) {
+        if (Move.isCapture(move) || Move.promotion(move) == QUEEN) {
+            return; // already ordered ahead of the quiet moves
+        }
+        int[] plyKillers = killers[ply];
+        if (plyKillers[0] != move) {
+            plyKillers[1] = plyKillers[0];
+            plyKillers[0] = move;
+        }
+        int index = historyIndex(move, color);
+        history[index] += depth * depth;
+        if (history[index] >= HISTORY_LIMIT) {
+            ageHistory();
+        }
+    }
+
+    private void ageHistory() {
+        for (int i = 0; i < history.length; i++) {
+            history[i] >>= 1;
+        }
+    }
+
+    private static int historyIndex(int move, int color) {
+        return color << 12 | Move.from(move) << 6 | Move.to(move);
+    }
+
+    // the victim's rank first, then the attacker's, so PxQ comes before QxQ before QxP. A
+    // queen promotion counts as winning a queen on top of any capture
+    private static int mvvLva(int move, ChessBoard board) {
+        int attacker = typeAt(board, Move.from(move));
+        int score = -RANK[attacker];
+        if (Move.isCapture(move)) {
+            score += RANK[Move.isEnPassant(move) ? PAWN : typeAt(board, Move.to(move))] * 8;
+        }
+        if (Move.promotion(move) == QUEEN) {
+            score += RANK[QUEEN] * 8;
+        }
+        return score;
+    }
+
+    private static int typeAt(ChessBoard board, int square) {
+        return board.getPiece(ChessPosition.of(square / 8 + 1, square % 8 + 1)).getPieceType().ordinal();
+    }
+}
@@ -0,0 +1,126 @@
+package chess.search;
+
+import chess.ChessGame;
+
+import java.util.function.Consumer;
+
+/**
+ * Lazy SMP: the main search runs on the calling thread while helper threads search the same
+ * position on their own copies of the game, all sharing one transposition table. The helpers'
+ * results are never used directly; what they store in the table lets the main search cut
+ * off and order moves sooner. Half the helpers start a ply deeper than the others, so they
+ * don't all walk the same tree in step.
+ * <p>
+ * When the main search finishes, runs out of time or is stopped, the helpers are stopped and
+ * joined before search returns, so no thread outlives the call.
+ */
+public class ParallelSearch {
+    private static final int DEFAULT_TABLE_MB = 64;
+
+    private final TranspositionTable table;
+    private final Search main;
+    private final Search[] helpers;
+
+    /**
+     * @param threads the number of threads to search with, including the calling thread
+     */
+    public ParallelSearch(int threads) {
+        this(threads, new TranspositionTable(DEFAULT_TABLE_MB));
+    }
+
+    /**
+     * @param threads the number of threads to search with, including the calling thread
+     * @param table   the transposition table every thread shares
+     */
+    public ParallelSearch(int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("A search needs at least 1 thread");
+        }
+        this.table = table;
+        main = new Search(table);
+        helpers = new Search[threads - 1];
+        for (int i = 0; i < helpers.length; i++) {
+            helpers[i] = new Search(table);
+        }
+    }
+
+    public int getThreadCount() {
+        return helpers.length + 1;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * @param listener called with the result of each of the main search's iterations
+     */
+    public void setListener(Consumer<SearchResult> listener) {
+        main.setListener(listener);
+    }
+
+    /**
+     * Asks a running search to stop; it returns the main search's last finished iteration
+     */
+    public void stop() {
+        main.stop();
+    }
+
+    /**
+     * Searches like {@link Search#search} with every thread. The node count of the result
+     * covers all of them.
+     *
+     * @param game        the game to search, for the team whose turn it is; left as found
+     * @param maxDepth    the deepest iteration for the main search to run
+     * @param timeLimitMs how long to search in milliseconds, or 0 for no limit
+     * @return the result of the main search's deepest finished iteration
+     */
+    public SearchResult search(ChessGame game, int maxDepth, long timeLimitMs) {
+        table.newSearch();
+        main.clearStop();
+        Thread[] threads = new Thread[helpers.length];
+        for (int i = 0; i < helpers.length; i++) {
+            Search helper = helpers[i];
+            ChessGame copy = game.copy();
+            int startDepth = 1 + (i + 1) % 2;
+            helper.clearStop();
+            threads[i] = new Thread(() -> helper.iterate(copy, startDepth, Search.MAX_PLY, 0, true),
+                    "search-helper-" + (i + 1));
+            threads[i].setDaemon(true);
+            threads[i].start();
+        }
+
+        SearchResult result;
+        try {
+            result = main.iterate(game, 1, maxDepth, timeLimitMs, false);
+        } finally {
+            stopHelpers(threads);
+        }
+        long nodes = result.nodes();
+        for (Search helper : helpers) {
+            nodes += helper.nodes();
+        }
+        return new SearchResult(result.bestMove(), result.score(), result.depth(), result.principalVariation(),
+                nodes, result.elapsedNanos());
+    }
+
+    private void stopHelpers(Thread[] threads) {
+        for (Search helper : helpers) {
+            helper.stop();
+        }
+        boolean interrupted = false;
+        for (Thread thread : threads) {
+            while (thread != null) {
+                try {
+                    thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true; // the helpers are already stopping, so finish waiting for them
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
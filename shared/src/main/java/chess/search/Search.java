@@ -0,0 +1,369 @@
+package chess.search;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.Move;
+import chess.MoveList;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * A negamax alpha-beta search with iterative deepening, aspiration windows and
+ * principal-variation search, ending each line in a quiescence search over captures.
+ * Moves are searched in the order {@link MoveOrderer} gives them. Positions reached again
+ * through another move order are looked up in a transposition table, which several searches
+ * may share.
+ * <p>
+ * The game is played forward and back in place with packed moves, so it is left as found.
+ * Every move list and the principal variation table are allocated up front, so nothing in
+ * the search tree allocates; only the result of each finished iteration does.
+ * <p>
+ * A Search is not thread-safe, but {@link #stop} may be called from another thread.
+ */
+public class Search {
+    public static final int MAX_PLY = 64;
+    // a mate found n plies from the root scores MATE - n, so shorter mates score higher
+    public static final int MATE = 32000;
+    static final int INFINITY = MATE + 1;
+    private static final int DRAW = 0;
+
+    // the window around the last iteration's score, and the depth from which it is used
+    private static final int ASPIRATION_WINDOW = 50;
+    private static final int ASPIRATION_DEPTH = 4;
+    // the clock and the stop flag are looked at once every 2048 nodes
+    private static final long CHECK_MASK = 2047;
+    private static final int FIFTY_MOVE_LIMIT = 100;
+    private static final int DEFAULT_TABLE_MB = 16;
+
+    private final MoveList[] plyMoves = new MoveList[MAX_PLY];
+    // the triangular principal variation table: pv[ply] holds the best line from that ply on
+    private final int[][] pv = new int[MAX_PLY][MAX_PLY];
+    private final int[] pvLength = new int[MAX_PLY];
+    // the last finished iteration's line, which the next one searches first
+    private final int[] previousPv = new int[MAX_PLY];
+    private int previousPvLength;
+    private boolean followPv;
+
+    private final TranspositionTable table;
+    private final MoveOrderer ordering = new MoveOrderer();
+    private ChessGame game;
+    private long nodes;
+    private long deadline;
+    private int completedDepth;
+    private boolean aborted;
+    private boolean helper;
+    private volatile boolean stopRequested;
+    private Consumer<SearchResult> listener;
+
+    public Search() {
+        this(new TranspositionTable(DEFAULT_TABLE_MB));
+    }
+
+    /**
+     * @param table the transposition table to use, which is kept between searches
+     */
+    public Search(TranspositionTable table) {
+        this.table = table;
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            plyMoves[ply] = new MoveList();
+        }
+    }
+
+    /**
+     * @param listener called with the result of every finished iteration, e.g. to print
+     *                 the node rate as the search goes
+     */
+    public void setListener(Consumer<SearchResult> listener) {
+        this.listener = listener;
+    }
+
+    long nodes() {
+        return nodes;
+    }
+
+    public TranspositionTable getTranspositionTable() {
+        return table;
+    }
+
+    /**
+     * Asks a running search to stop. It returns the result of the last finished iteration.
+     */
+    public void stop() {
+        stopRequested = true;
+    }
+
+    // called before a helper's thread starts, so a stop can't be lost to a late reset
+    void clearStop() {
+        stopRequested = false;
+    }
+
+    /**
+     * Searches deeper one ply at a time until the depth or the time runs out. The first
+     * iteration always finishes, so there is always a move to play if the game isn't over.
+     *
+     * @param game        the game to search, for the team whose turn it is
+     * @param maxDepth    the deepest iteration to run, at most MAX_PLY
+     * @param timeLimitMs how long to search in milliseconds, or 0 for no limit
+     * @return the result of the deepest finished iteration
+     */
+    public SearchResult search(ChessGame game, int maxDepth, long timeLimitMs) {
+        table.newSearch();
+        stopRequested = false;
+        return iterate(game, 1, maxDepth, timeLimitMs, false);
+    }
+
+    // the iterative deepening loop, starting from any depth so parallel helpers can stagger
+    // themselves. A helper can be stopped in its first iteration too, since the main search
+    // is the one whose result is used
+    SearchResult iterate(ChessGame game, int startDepth, int maxDepth, long timeLimitMs, boolean helper) {
+        this.game = game;
+        this.helper = helper;
+        long start = System.nanoTime();
+        deadline = timeLimitMs > 0 ? start + timeLimitMs * 1_000_000 : Long.MAX_VALUE;
+        nodes = 0;
+        completedDepth = 0;
+        aborted = false;
+        previousPvLength = 0;
+        ordering.newSearch();
+
+        SearchResult result = new SearchResult(null, DRAW, 0, List.of(), 0, 0);
+        int score = 0;
+        for (int depth = startDepth; depth <= Math.min(maxDepth, MAX_PLY - 1); depth++) {
+            score = aspirationSearch(depth, score);
+            if (aborted) {
+                break;
+            }
+            completedDepth = depth;
+            System.arraycopy(pv[0], 0, previousPv, 0, pvLength[0]);
+            previousPvLength = pvLength[0];
+            result = new SearchResult(previousPvLength == 0 ? null : Move.toChessMove(previousPv[0]), score, depth,
+                    principalVariation(), nodes, System.nanoTime() - start);
+            if (listener != null) {
+                listener.accept(result);
+            }
+            if (previousPvLength == 0 || Math.abs(score) >= MATE - depth) {
+                break; // the game is over, or a mate was found that a deeper search can't improve on
+            }
+        }
+        this.game = null;
+        return result;
+    }
+
+    // searches a narrow window around the last score first, and widens the side it falls
+    // outside of until the score lands inside it
+    private int aspirationSearch(int depth, int guess) {
+        int alpha = -INFINITY;
+        int beta = INFINITY;
+        int delta = ASPIRATION_WINDOW;
+        if (depth >= ASPIRATION_DEPTH) {
+            alpha = Math.max(guess - delta, -INFINITY);
+            beta = Math.min(guess + delta, INFINITY);
+        }
+        while (true) {
+            followPv = true;
+            int score = negamax(depth, 0, alpha, beta);
+            if (aborted) {
+                return score;
+            }
+            if (score <= alpha) {
+                alpha = Math.max(alpha - delta, -INFINITY);
+            } else if (score >= beta) {
+                beta = Math.min(beta + delta, INFINITY);
+            } else {
+                return score;
+            }
+            delta *= 2;
+        }
+    }
+
+    private int negamax(int depth, int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        if (shouldStop()) {
+            return DRAW;
+        }
+        if (ply > 0 && isDraw()) {
+            return DRAW;
+        }
+        if (ply >= MAX_PLY - 1) {
+            return evaluate();
+        }
+        boolean inCheck = game.isInCheck(game.getTeamTurn());
+        if (inCheck) {
+            depth++; // don't let a check push a threat past the horizon
+        }
+        if (depth <= 0) {
+            return quiescence(ply, alpha, beta);
+        }
+
+        // a deep enough entry settles a null-window node outright; principal variation nodes
+        // are always searched, so the line stays whole
+        long key = game.zobristKey();
+        long entry = table.probe(key);
+        int tableMove = Move.NONE;
+        if (entry != TranspositionTable.MISS) {
+            tableMove = TranspositionTable.move(entry);
+            if (beta - alpha == 1 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER_BOUND && score >= beta)
+                        || (bound == TranspositionTable.UPPER_BOUND && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        MoveList moves = plyMoves[ply];
+        moves.clear();
+        game.generateMoves(moves);
+        if (moves.isEmpty()) {
+            return inCheck ? -MATE + ply : DRAW;
+        }
+        int color = game.getTeamTurn().ordinal();
+        ordering.score(moves, ply, followPv(moves, ply) ? previousPv[ply] : tableMove, game.getBoard(), color);
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = Move.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = ordering.next(moves, ply, i);
+            game.makeMove(move);
+            int score;
+            if (i == 0) {
+                score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+            } else {
+                // the first move is expected to be best, so only prove the others are worse,
+                // and search again with the full window when one turns out not to be
+                score = -negamax(depth - 1, ply + 1, -alpha - 1, -alpha);
+                if (score > alpha && score < beta) {
+                    score = -negamax(depth - 1, ply + 1, -beta, -alpha);
+                }
+            }
+            game.unmakeMove();
+            if (aborted) {
+                return DRAW;
+            }
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    updatePv(ply, move);
+                    if (alpha >= beta) {
+                        ordering.cutoff(move, ply, depth, color);
+                        break;
+                    }
+                }
+            }
+        }
+        int bound = best >= beta ? TranspositionTable.LOWER_BOUND
+                : best > originalAlpha ? TranspositionTable.EXACT : TranspositionTable.UPPER_BOUND;
+        table.store(key, depth, bound, toTable(best, ply), bestMove);
+        return best;
+    }
+
+    // searches captures until the position is quiet, so a line isn't scored in the middle of
+    // an exchange. The side to move can always stand pat on the static score instead
+    private int quiescence(int ply, int alpha, int beta) {
+        pvLength[ply] = ply;
+        followPv = false;
+        if (shouldStop()) {
+            return DRAW;
+        }
+        int best = evaluate();
+        if (best >= beta || ply >= MAX_PLY - 1) {
+            return best;
+        }
+        alpha = Math.max(alpha, best);
+
+        MoveList moves = plyMoves[ply];
+        moves.clear();
+        game.generateCaptures(moves);
+        ordering.score(moves, ply, Move.NONE, game.getBoard(), game.getTeamTurn().ordinal());
+        for (int i = 0; i < moves.size(); i++) {
+            game.makeMove(ordering.next(moves, ply, i));
+            int score = -quiescence(ply + 1, -beta, -alpha);
+            game.unmakeMove();
+            if (aborted) {
+                return DRAW;
+            }
+            if (score > best) {
+                best = score;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    // counts the node, and every so often checks whether to give up. The main search's first
+    // iteration is never cut short
+    private boolean shouldStop() {
+        if ((++nodes & CHECK_MASK) == 0 && (completedDepth > 0 || helper)
+                && (stopRequested || System.nanoTime() >= deadline)) {
+            aborted = true;
+        }
+        return aborted;
+    }
+
+    private boolean isDraw() {
+        return game.isRepetition() || game.getHalfmoveClock() >= FIFTY_MOVE_LIMIT
+                || game.getBoard().hasInsufficientMaterial();
+    }
+
+    private int evaluate() {
+        return Evaluator.evaluate(game.getBoard(), game.getTeamTurn());
+    }
+
+    // while still on the last iteration's line, its next move is the one to try first
+    private boolean followPv(MoveList moves, int ply) {
+        followPv = followPv && ply < previousPvLength && contains(moves, previousPv[ply]);
+        return followPv;
+    }
+
+    private static boolean contains(MoveList moves, int move) {
+        for (int i = 0; i < moves.size(); i++) {
+            if (moves.get(i) == move) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // mate scores count plies from the root, but the table is shared by every path to a
+    // position, so they are stored counting from the position itself
+    private static int toTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score + ply;
+        }
+        return score <= -MATE + MAX_PLY ? score - ply : score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE - MAX_PLY) {
+            return score - ply;
+        }
+        return score <= -MATE + MAX_PLY ? score + ply : score;
+    }
+
+    private void updatePv(int ply, int move) {
+        pv[ply][ply] = move;
+        int length = pvLength[ply + 1];
+        System.arraycopy(pv[ply + 1], ply + 1, pv[ply], ply + 1, length - ply - 1);
+        pvLength[ply] = Math.max(length, ply + 1);
+    }
+
+    private List<ChessMove> principalVariation() {
+        List<ChessMove> line = new ArrayList<>(previousPvLength);
+        for (int i = 0; i < previousPvLength; i++) {
+            line.add(Move.toChessMove(previousPv[i]));
+        }
+        return line;
+    }
+}
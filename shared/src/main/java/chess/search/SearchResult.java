@@ -0,0 +1,75 @@
+package chess.search;
+
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+
+import java.util.List;
+
+/**
+ * The outcome of one iteration of a search: the best line found at that depth, its score and
+ * how much work it took
+ *
+ * @param bestMove           the move to play, or null if the side to move has none
+ * @param score              centipawns from the side to move's view, or a mate score
+ * @param depth              the deepest iteration that finished
+ * @param principalVariation the expected line of play, starting with bestMove
+ * @param nodes              positions visited, including the quiescence search
+ * @param elapsedNanos       time spent searching
+ */
+public record SearchResult(ChessMove bestMove, int score, int depth, List<ChessMove> principalVariation,
+                           long nodes, long elapsedNanos) {
+
+    /**
+     * @return the search speed in positions per second
+     */
+    public long nodesPerSecond() {
+        return elapsedNanos == 0 ? 0 : nodes * 1_000_000_000L / elapsedNanos;
+    }
+
+    /**
+     * @return True if the score is a forced mate for either side
+     */
+    public boolean isMate() {
+        return Math.abs(score) >= Search.MATE - Search.MAX_PLY;
+    }
+
+    /**
+     * @return the number of moves until mate, negative if the side to move is the one being
+     * mated, or 0 if the score isn't a mate
+     */
+    public int mateIn() {
+        if (!isMate()) {
+            return 0;
+        }
+        int plies = Search.MATE - Math.abs(score);
+        return score > 0 ? (plies + 1) / 2 : -(plies + 1) / 2;
+    }
+
+    /**
+     * @return a one-line report of the iteration, e.g.
+     * "depth 6 score cp 35 nodes 412983 nps 1843674 time 224 pv e2e4 e7e5 g1f3"
+     */
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append("depth ").append(depth)
+                .append(isMate() ? " score mate " + mateIn() : " score cp " + score)
+                .append(" nodes ").append(nodes)
+                .append(" nps ").append(nodesPerSecond())
+                .append(" time ").append(elapsedNanos / 1_000_000)
+                .append(" pv");
+        for (ChessMove move : principalVariation) {
+            report.append(' ').append(square(move.getStartPosition())).append(square(move.getEndPosition()));
+            if (move.getPromotionPiece() != null) {
+                report.append(move.getPromotionPiece() == ChessPiece.PieceType.KNIGHT
+                        ? 'n' : Character.toLowerCase(move.getPromotionPiece().name().charAt(0)));
+            }
+        }
+        return report.toString();
+    }
+
+    private static String square(ChessPosition position) {
+        return "" + (char) ('a' + position.getColumn() - 1) + position.getRow();
+    }
+}
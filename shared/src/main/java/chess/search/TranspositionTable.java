@@ -0,0 +1,156 @@
+package chess.search;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A fixed-size hash table of searched positions, so a position reached again through a
+ * different move order can reuse what was learned about it: its score, how deep that score
+ * was searched, whether it is exact or only a bound, and the best move found.
+ * <p>
+ * Entries live in one long[] as two longs each: the entry's data, and the position's key
+ * XORed with that data. Threads share a table without locks; an entry half-written by one
+ * thread while another reads it fails the XOR check and simply reads as a miss.
+ * <p>
+ * Each entry's data packs the best move in bits 0-19, the score in bits 20-35, the depth in
+ * bits 36-43, the bound in bits 44-45 and the search age in bits 46-53. The bound is never
+ * 0, so an empty slot can't be mistaken for an entry.
+ */
+public final class TranspositionTable {
+    public static final long MISS = 0;
+
+    public static final int EXACT = 1;
+    // the score is at least this much: the search failed high
+    public static final int LOWER_BOUND = 2;
+    // the score is at most this much: every move failed low
+    public static final int UPPER_BOUND = 3;
+
+    private static final int SCORE_SHIFT = 20;
+    private static final int DEPTH_SHIFT = 36;
+    private static final int BOUND_SHIFT = 44;
+    private static final int AGE_SHIFT = 46;
+    private static final int ENTRY_LONGS = 2;
+    // keeps the array within Java's index range
+    private static final int MAX_ENTRIES = 1 << 29;
+
+    private final long[] table;
+    private final int mask;
+    private int age;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * @param megabytes the memory to use; the entry count is rounded down to a power of two
+     */
+    public TranspositionTable(int megabytes) {
+        if (megabytes < 1) {
+            throw new IllegalArgumentException("The table needs at least 1 MB");
+        }
+        long entries = (long) megabytes * 1024 * 1024 / (ENTRY_LONGS * Long.BYTES);
+        int capacity = (int) Math.min(Long.highestOneBit(entries), MAX_ENTRIES);
+        table = new long[capacity * ENTRY_LONGS];
+        mask = capacity - 1;
+    }
+
+    /**
+     * @return the number of entries the table holds
+     */
+    public int capacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Empties the table and resets the hit counters
+     */
+    public void clear() {
+        Arrays.fill(table, 0);
+        age = 0;
+        probes.reset();
+        hits.reset();
+    }
+
+    /**
+     * Marks the start of a new search. Entries left from earlier searches are replaced
+     * before the current search's, however deep they were searched.
+     */
+    public void newSearch() {
+        age = (age + 1) & 0xFF;
+    }
+
+    /**
+     * @param key the position's zobrist key
+     * @return the position's entry, to be read with move, score, depth and bound, or MISS
+     */
+    public long probe(long key) {
+        probes.increment();
+        int index = ((int) key & mask) * ENTRY_LONGS;
+        long data = table[index + 1];
+        if (data == MISS || (table[index] ^ data) != key) {
+            return MISS;
+        }
+        hits.increment();
+        return data;
+    }
+
+    /**
+     * Stores a search result. It replaces whatever is in the position's slot if that is the
+     * same position, was left from an earlier search, or was searched no deeper.
+     *
+     * @param key   the position's zobrist key
+     * @param depth the depth searched, 0-255
+     * @param bound EXACT, LOWER_BOUND or UPPER_BOUND
+     * @param score the score, which must fit in 16 bits
+     * @param move  the best packed move found, or Move.NONE
+     */
+    public void store(long key, int depth, int bound, int score, int move) {
+        int index = ((int) key & mask) * ENTRY_LONGS;
+        long old = table[index + 1];
+        if (old != MISS && (table[index] ^ old) != key && age(old) == age && depth(old) > depth) {
+            return;
+        }
+        long data = move
+                | (score & 0xFFFFL) << SCORE_SHIFT
+                | (long) depth << DEPTH_SHIFT
+                | (long) bound << BOUND_SHIFT
+                | (long) age << AGE_SHIFT;
+        table[index] = key ^ data;
+        table[index + 1] = data;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0xFFFFF);
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> SCORE_SHIFT);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> DEPTH_SHIFT) & 0xFF;
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> BOUND_SHIFT) & 0x3;
+    }
+
+    private static int age(long entry) {
+        return (int) (entry >>> AGE_SHIFT) & 0xFF;
+    }
+
+    public long probes() {
+        return probes.sum();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the share of probes that found their position, 0 before the first probe
+     */
+    public double hitRate() {
+        long probed = probes.sum();
+        return probed == 0 ? 0 : (double) hits.sum() / probed;
+    }
+}
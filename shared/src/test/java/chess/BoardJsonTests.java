@@ -0,0 +1,64 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class BoardJsonTests {
+    private final Gson gson = new Gson();
+
+    @Test
+    @DisplayName("Board Survives a Gson Round Trip")
+    public void roundTrip() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(new ChessMove(new ChessPosition(2, 5), new ChessPosition(4, 5), null));
+
+        ChessBoard loaded = gson.fromJson(gson.toJson(game.getBoard()), ChessBoard.class);
+        Assertions.assertEquals(game.getBoard(), loaded);
+        Assertions.assertEquals(game.getBoard().positionKey(), loaded.positionKey());
+    }
+
+    @Test
+    @DisplayName("Old Squares Format Still Loads")
+    public void oldSquaresFormat() {
+        ChessBoard start = new ChessGame().getBoard();
+        JsonObject oldBoard = new JsonObject();
+        oldBoard.add("squares", gson.toJsonTree(toSquares(start)));
+        JsonObject oldGame = new JsonObject();
+        oldGame.addProperty("currentTeamColor", "BLACK");
+        oldGame.add("currentBoard", oldBoard);
+        oldGame.addProperty("isOver", false);
+
+        ChessBoard board = gson.fromJson(oldBoard, ChessBoard.class);
+        Assertions.assertEquals(start, board);
+        Assertions.assertEquals(start.positionKey(), board.positionKey(), "castling rights should be inferred");
+
+        ChessGame game = gson.fromJson(oldGame, ChessGame.class);
+        Assertions.assertEquals(start, game.getBoard());
+        Assertions.assertEquals(ChessGame.TeamColor.BLACK, game.getTeamTurn());
+        Assertions.assertTrue(game.getMoveHistory().isEmpty());
+        Assertions.assertEquals(20, game.perft(1));
+    }
+
+    @Test
+    @DisplayName("Unknown Board JSON Is Rejected")
+    public void unknownFormat() {
+        Assertions.assertThrows(JsonParseException.class, () -> gson.fromJson("{}", ChessBoard.class));
+        Assertions.assertThrows(JsonParseException.class,
+                () -> gson.fromJson("{\"squares\":[[null]]}", ChessBoard.class));
+    }
+
+    // the layout ChessBoard was stored in before it moved to bitboards
+    private static ChessPiece[][] toSquares(ChessBoard board) {
+        ChessPiece[][] squares = new ChessPiece[8][8];
+        for (int row = 1; row <= 8; row++) {
+            for (int col = 1; col <= 8; col++) {
+                squares[row - 1][col - 1] = board.getPiece(new ChessPosition(row, col));
+            }
+        }
+        return squares;
+    }
+}
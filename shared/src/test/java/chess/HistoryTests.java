@@ -0,0 +1,110 @@
+package chess;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static passoff.chess.TestUtilities.loadBoard;
+
+public class HistoryTests {
+
+    @Test
+    @DisplayName("Undo Restores Every Position")
+    public void undoRestoresPositions() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard("""
+                |r| | | |k| | |r|
+                | |P| | | |p| | |
+                | | | | | | | | |
+                | | | | |P| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |R| | | |K| | |R|
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+
+        List<ChessMove> moves = List.of(
+                move(1, 5, 1, 7, null),                         // castle
+                move(7, 6, 5, 6, null),                         // two-square pawn move
+                move(5, 5, 6, 6, null),                         // en passant
+                move(8, 5, 8, 7, null),                         // castle
+                move(7, 2, 8, 1, ChessPiece.PieceType.QUEEN));  // capture and promote
+
+        long[] keys = new long[moves.size()];
+        ChessBoard[] boards = new ChessBoard[moves.size()];
+        for (int i = 0; i < moves.size(); i++) {
+            keys[i] = game.zobristKey();
+            boards[i] = game.getBoard().copy();
+            game.makeMove(moves.get(i));
+        }
+        Assertions.assertEquals(moves, game.getMoveHistory());
+
+        for (int i = moves.size() - 1; i >= 0; i--) {
+            game.undoMove();
+            Assertions.assertEquals(boards[i], game.getBoard());
+            Assertions.assertEquals(keys[i], game.zobristKey(), "undo left a different key");
+        }
+        Assertions.assertEquals(ChessGame.TeamColor.WHITE, game.getTeamTurn());
+        Assertions.assertTrue(game.getMoveHistory().isEmpty());
+        Assertions.assertThrows(InvalidMoveException.class, game::undoMove);
+
+        // the castling rights came back with the undone moves
+        Assertions.assertTrue(game.validMoves(new ChessPosition(1, 5)).contains(moves.get(0)));
+    }
+
+    @Test
+    @DisplayName("Set Board Clears the History")
+    public void setBoardClearsHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.makeMove(move(2, 5, 4, 5, null));
+        Assertions.assertEquals(1, game.getMoveHistory().size());
+
+        game.setBoard(new ChessGame().getBoard());
+        Assertions.assertTrue(game.getMoveHistory().isEmpty());
+        Assertions.assertThrows(InvalidMoveException.class, game::undoMove);
+    }
+
+    @Test
+    @DisplayName("Serialized History Holds Only the Moves Made")
+    public void serializedHistory() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessMove[] shuffle = {
+                move(1, 7, 3, 6, null),
+                move(8, 7, 6, 6, null),
+                move(3, 6, 1, 7, null),
+                move(6, 6, 8, 7, null)
+        };
+        for (int i = 0; i < 7; i++) {
+            game.makeMove(shuffle[i % 4]);
+        }
+        game.makeMove(move(7, 5, 5, 5, null));
+        game.undoMove();
+
+        Gson gson = new Gson();
+        String json = gson.toJson(game);
+        JsonObject fields = JsonParser.parseString(json).getAsJsonObject();
+        Assertions.assertEquals(7, fields.getAsJsonArray("moveHistory").size(), json);
+        Assertions.assertFalse(fields.has("keyHistory"), json);
+
+        ChessGame loaded = gson.fromJson(json, ChessGame.class);
+        Assertions.assertEquals(game, loaded);
+        Assertions.assertEquals(game.getMoveHistory(), loaded.getMoveHistory());
+        // the rebuilt keys still find the repetition
+        loaded.makeMove(shuffle[3]);
+        Assertions.assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, loaded.status());
+        for (int i = 0; i < 8; i++) {
+            loaded.undoMove();
+        }
+        Assertions.assertEquals(new ChessGame(), loaded);
+    }
+
+    private static ChessMove move(int fromRow, int fromCol, int toRow, int toCol, ChessPiece.PieceType promotion) {
+        return new ChessMove(new ChessPosition(fromRow, fromCol), new ChessPosition(toRow, toCol), promotion);
+    }
+}
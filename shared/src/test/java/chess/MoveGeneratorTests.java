@@ -0,0 +1,106 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static passoff.chess.TestUtilities.loadBoard;
+
+public class MoveGeneratorTests {
+
+    @Test
+    @DisplayName("Staged Moves Match the Full Move List")
+    public void stagedMoves() {
+        ChessGame game = gameFrom("""
+                |r| | | | |r|k| |
+                | |p|p| |q|p|p|p|
+                |p| |n|p| |n| | |
+                | | |b| |p| |B| |
+                | | |B| |P| |b| |
+                |P| |N|P| |N| | |
+                | |P|P| |Q|P|P|P|
+                |R| | | | |R|K| |
+                """, ChessGame.TeamColor.WHITE);
+        MoveList all = new MoveList();
+        MoveGenerator.generateLegalMoves(game.getBoard(), 0, all);
+
+        Set<Integer> expected = new HashSet<>();
+        for (int i = 0; i < all.size(); i++) {
+            expected.add(all.get(i));
+        }
+        Set<Integer> staged = new HashSet<>();
+        LegalMoveIterator iterator = new LegalMoveIterator();
+        iterator.reset(game.getBoard(), 0);
+        for (int move = iterator.next(); move != Move.NONE; move = iterator.next()) {
+            Assertions.assertTrue(staged.add(move), "staged generation repeated a move");
+        }
+        Assertions.assertEquals(expected, staged);
+        Assertions.assertTrue(game.hasAnyLegalMove());
+    }
+
+    @Test
+    @DisplayName("isLegal Agrees with the Generated Moves")
+    public void isLegal() {
+        assertIsLegalMatchesValidMoves(gameFrom("""
+                |n| |n| | | | | |
+                |P|P|P|k| | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | |b| | |
+                | | | | | | | | |
+                | | | | |K|p|p|p|
+                | | | | | |N| |N|
+                """, ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("isLegal Agrees with the Generated Moves When Castling")
+    public void isLegalCastling() {
+        assertIsLegalMatchesValidMoves(ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R w KQkq - 0 1"));
+        assertIsLegalMatchesValidMoves(ChessGame.fromFen("r3k2r/8/8/8/8/8/8/R3K2R b KQkq - 0 1"));
+        // the black rook covers f1, so only the queenside castle is legal
+        assertIsLegalMatchesValidMoves(ChessGame.fromFen("r3kr2/8/8/8/8/8/8/R3K2R w KQq - 0 1"));
+    }
+
+    @Test
+    @DisplayName("isLegal Agrees with the Generated Moves En Passant")
+    public void isLegalEnPassant() {
+        assertIsLegalMatchesValidMoves(ChessGame.fromFen("4k3/8/8/3pP3/8/8/8/4K3 w - d6 0 1"));
+        assertIsLegalMatchesValidMoves(ChessGame.fromFen("4k3/8/8/8/3Pp3/8/8/4K3 b - d3 0 1"));
+        // the capture would expose the king along the fifth rank
+        assertIsLegalMatchesValidMoves(ChessGame.fromFen("8/8/8/K2pP2r/8/8/8/4k3 w - d6 0 1"));
+    }
+
+    private static ChessGame gameFrom(String boardText, ChessGame.TeamColor turn) {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard(boardText));
+        game.setTeamTurn(turn);
+        return game;
+    }
+
+    private static void assertIsLegalMatchesValidMoves(ChessGame game) {
+        ChessGame.TeamColor turn = game.getTeamTurn();
+        Set<ChessMove> legal = new HashSet<>();
+        for (int square = 0; square < 64; square++) {
+            ChessPosition position = ChessPosition.ofSquare(square);
+            ChessPiece piece = game.getBoard().getPiece(position);
+            if (piece != null && piece.getTeamColor() == turn) {
+                legal.addAll(game.validMoves(position));
+            }
+        }
+
+        ChessPiece.PieceType[] promotions = {null, ChessPiece.PieceType.QUEEN, ChessPiece.PieceType.ROOK,
+                ChessPiece.PieceType.BISHOP, ChessPiece.PieceType.KNIGHT, ChessPiece.PieceType.KING};
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                for (ChessPiece.PieceType promotion : promotions) {
+                    ChessMove move = new ChessMove(ChessPosition.ofSquare(from), ChessPosition.ofSquare(to), promotion);
+                    Assertions.assertEquals(legal.contains(move), game.isLegal(move), move.toString());
+                }
+            }
+        }
+    }
+}
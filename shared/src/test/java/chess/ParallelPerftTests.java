@@ -0,0 +1,62 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Runs the parallel perft over the same positions as PerftTests, with and without the hash
+ * table, on a pool of several threads so the subtasks' boards are used side by side.
+ */
+public class ParallelPerftTests {
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+    private static final String ROOK_ENDGAME = "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1";
+    private static final String PROMOTIONS = "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 0 1";
+
+    @Test
+    @DisplayName("Parallel Perft Matches the Published Counts")
+    public void matchesPublishedCounts() {
+        ForkJoinPool pool = new ForkJoinPool(8);
+        try {
+            ParallelPerft perft = new ParallelPerft(pool, 0);
+            Assertions.assertEquals(4865609, perft.perft(new ChessGame(), 5));
+            Assertions.assertEquals(4085603, perft.perft(ChessGame.fromFen(KIWIPETE), 4));
+            Assertions.assertEquals(674624, perft.perft(ChessGame.fromFen(ROOK_ENDGAME), 5));
+            Assertions.assertEquals(62379, perft.perft(ChessGame.fromFen(PROMOTIONS), 3));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Perft Hash Table Keeps the Counts")
+    public void hashTable() {
+        ForkJoinPool pool = new ForkJoinPool(8);
+        try {
+            ParallelPerft perft = new ParallelPerft(pool, 16);
+            Assertions.assertEquals(4865609, perft.perft(new ChessGame(), 5));
+            Assertions.assertEquals(4085603, perft.perft(ChessGame.fromFen(KIWIPETE), 4));
+            Assertions.assertEquals(674624, perft.perft(ChessGame.fromFen(ROOK_ENDGAME), 5));
+            // the second time round is answered from the table
+            Assertions.assertEquals(4865609, perft.perft(new ChessGame(), 5));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Parallel Perft Matches Serial Perft and Leaves the Game Alone")
+    public void matchesSerialPerft() throws InvalidMoveException {
+        ChessGame game = ChessGame.fromFen(KIWIPETE);
+        game.makeMove(new ChessMove(new ChessPosition(5, 5), new ChessPosition(7, 6), null));
+        String fen = game.toFen();
+        ParallelPerft perft = new ParallelPerft();
+        for (int depth = 0; depth <= 3; depth++) {
+            Assertions.assertEquals(game.perft(depth), perft.perft(game, depth), "depth " + depth);
+        }
+        Assertions.assertEquals(fen, game.toFen());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ParallelPerft(ForkJoinPool.commonPool(), -1));
+    }
+}
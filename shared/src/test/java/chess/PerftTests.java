@@ -0,0 +1,101 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+/**
+ * Perft regression suite: counts every legal move sequence to a fixed depth from standard
+ * positions and compares against the published node counts. Any change to move generation
+ * that adds, drops or duplicates a move shows up here. Each run also prints its node rate so
+ * move generation speed can be compared across changes.
+ */
+public class PerftTests {
+
+    @Test
+    @DisplayName("Perft Starting Position")
+    public void startingPosition() {
+        ChessGame game = new ChessGame();
+        assertPerft(game, 1, 20);
+        assertPerft(game, 2, 400);
+        assertPerft(game, 3, 8902);
+        assertPerft(game, 4, 197281);
+        assertPerft(game, 5, 4865609);
+    }
+
+    @Test
+    @DisplayName("Perft Pinned Pieces, En Passant and Rook Endgame")
+    public void rookEndgame() {
+        ChessGame game = ChessGame.fromFen("8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+        assertPerft(game, 1, 14);
+        assertPerft(game, 2, 191);
+        assertPerft(game, 3, 2812);
+        assertPerft(game, 4, 43238);
+        assertPerft(game, 5, 674624);
+    }
+
+    @Test
+    @DisplayName("Perft Castling and En Passant")
+    public void kiwipete() {
+        ChessGame game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        assertPerft(game, 1, 48);
+        assertPerft(game, 2, 2039);
+        assertPerft(game, 3, 97862);
+        assertPerft(game, 4, 4085603);
+    }
+
+    @Test
+    @DisplayName("Perft Castling Rights After Promotion")
+    public void castlingAndPromotion() {
+        ChessGame game = ChessGame.fromFen("rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 0 1");
+        assertPerft(game, 1, 44);
+        assertPerft(game, 2, 1486);
+        assertPerft(game, 3, 62379);
+    }
+
+    @Test
+    @DisplayName("Perft Promotions")
+    public void promotions() {
+        ChessGame game = ChessGame.fromFen("n1n5/PPPk4/8/8/8/8/4Kppp/5N1N b - - 0 1");
+        assertPerft(game, 1, 24);
+        assertPerft(game, 2, 496);
+        assertPerft(game, 3, 9483);
+        assertPerft(game, 4, 182838);
+    }
+
+    @Test
+    @DisplayName("Perft Middlegame")
+    public void middlegame() {
+        ChessGame game = ChessGame.fromFen("r4rk1/1pp1qppp/p1np1n2/2b1p1B1/2B1P1b1/P1NP1N2/1PP1QPPP/R4RK1 w - - 0 1");
+        assertPerft(game, 1, 46);
+        assertPerft(game, 2, 2079);
+        assertPerft(game, 3, 89890);
+    }
+
+    @Test
+    @DisplayName("Divide Matches Perft and Leaves Board Unchanged")
+    public void divide() {
+        ChessGame game = new ChessGame();
+        ChessBoard before = game.getBoard().copy();
+        long key = game.zobristKey();
+
+        Map<ChessMove, Long> counts = game.divide(3);
+
+        Assertions.assertEquals(20, counts.size(), "divide should list every legal first move");
+        Assertions.assertEquals(8902L, counts.values().stream().mapToLong(Long::longValue).sum());
+        Assertions.assertEquals(before, game.getBoard(), "perft should leave the board as it found it");
+        Assertions.assertEquals(before.zobristKey(), game.getBoard().zobristKey());
+        Assertions.assertEquals(key, game.zobristKey());
+    }
+
+    private static void assertPerft(ChessGame game, int depth, long expected) {
+        long start = System.nanoTime();
+        long nodes = game.perft(depth);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("perft(%d) = %d nodes in %.1f ms (%.0f nodes/s)%n",
+                depth, nodes, elapsed / 1e6, nodes / (elapsed / 1e9));
+        Assertions.assertEquals(expected, nodes, "Wrong perft(" + depth + ") node count");
+    }
+}
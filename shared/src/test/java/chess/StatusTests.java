@@ -0,0 +1,153 @@
+package chess;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static passoff.chess.TestUtilities.loadBoard;
+
+public class StatusTests {
+
+    @Test
+    @DisplayName("Status Follows the Game")
+    public void statusFollowsMoves() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, game.status());
+
+        // fool's mate
+        game.makeMove(new ChessMove(new ChessPosition(2, 6), new ChessPosition(3, 6), null));
+        game.makeMove(new ChessMove(new ChessPosition(7, 5), new ChessPosition(5, 5), null));
+        game.makeMove(new ChessMove(new ChessPosition(2, 7), new ChessPosition(4, 7), null));
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, game.status());
+        game.makeMove(new ChessMove(new ChessPosition(8, 4), new ChessPosition(4, 8), null));
+
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE, game.status());
+        Assertions.assertTrue(game.isInCheckmate(ChessGame.TeamColor.WHITE));
+    }
+
+    @Test
+    @DisplayName("Status After Set Board and Set Turn")
+    public void statusAfterSetBoard() {
+        ChessGame game = new ChessGame();
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, game.status());
+
+        game.setBoard(loadBoard("""
+                |k| | | | | | | |
+                | | |Q| | | | | |
+                | |K| | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(ChessGame.GameStatus.STALEMATE, game.status());
+
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, game.status());
+    }
+
+    @Test
+    @DisplayName("Status Sees Pieces Added to the Board")
+    public void statusAfterAddPiece() {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.BLACK);
+        Assertions.assertEquals(ChessGame.GameStatus.INSUFFICIENT_MATERIAL, game.status());
+
+        game.getBoard().addPiece(new ChessPosition(4, 5),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.ROOK));
+        Assertions.assertEquals(ChessGame.GameStatus.CHECK, game.status());
+    }
+
+    @Test
+    @DisplayName("Threefold Repetition")
+    public void threefoldRepetition() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        ChessMove[] shuffle = {
+                new ChessMove(new ChessPosition(1, 7), new ChessPosition(3, 6), null),
+                new ChessMove(new ChessPosition(8, 7), new ChessPosition(6, 6), null),
+                new ChessMove(new ChessPosition(3, 6), new ChessPosition(1, 7), null),
+                new ChessMove(new ChessPosition(6, 6), new ChessPosition(8, 7), null)
+        };
+        for (int i = 0; i < 7; i++) {
+            game.makeMove(shuffle[i % 4]);
+            Assertions.assertEquals(ChessGame.GameStatus.NORMAL, game.status());
+        }
+        // the starting position, with white to move, for the third time
+        game.makeMove(shuffle[3]);
+        Assertions.assertEquals(ChessGame.GameStatus.THREEFOLD_REPETITION, game.status());
+        Assertions.assertTrue(game.status().isDraw());
+
+        game.undoMove();
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, game.status());
+    }
+
+    @Test
+    @DisplayName("Fifty-Move Rule")
+    public void fiftyMoveRule() throws InvalidMoveException {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                |R| | | |K| | | |
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+
+        // shuffle the rook and the black king back and forth without capturing anything
+        ChessMove[] shuffle = {
+                new ChessMove(new ChessPosition(1, 1), new ChessPosition(2, 1), null),
+                new ChessMove(new ChessPosition(8, 5), new ChessPosition(8, 6), null),
+                new ChessMove(new ChessPosition(2, 1), new ChessPosition(1, 1), null),
+                new ChessMove(new ChessPosition(8, 6), new ChessPosition(8, 5), null)
+        };
+        for (int i = 0; i < 100; i++) {
+            Assertions.assertNotEquals(ChessGame.GameStatus.FIFTY_MOVE_RULE, game.status());
+            game.makeMove(shuffle[i % 4]);
+        }
+        Assertions.assertEquals(100, game.getHalfmoveClock());
+        Assertions.assertEquals(ChessGame.GameStatus.FIFTY_MOVE_RULE, game.status());
+    }
+
+    @Test
+    @DisplayName("Insufficient Material")
+    public void insufficientMaterial() {
+        ChessGame game = new ChessGame();
+        game.setBoard(loadBoard("""
+                | | | | |k| | | |
+                | | | | | | | | |
+                | | | | |b| | | |
+                | | | | | | | | |
+                | | | | | | | | |
+                | | | |B| | | | |
+                | | | | | | | | |
+                | | | | |K| | | |
+                """));
+        game.setTeamTurn(ChessGame.TeamColor.WHITE);
+        // both bishops are on light squares
+        Assertions.assertEquals(ChessGame.GameStatus.INSUFFICIENT_MATERIAL, game.status());
+
+        game.getBoard().addPiece(new ChessPosition(3, 4), null);
+        game.getBoard().addPiece(new ChessPosition(3, 5),
+                new ChessPiece(ChessGame.TeamColor.WHITE, ChessPiece.PieceType.BISHOP));
+        Assertions.assertEquals(ChessGame.GameStatus.NORMAL, game.status());
+
+        game.getBoard().addPiece(new ChessPosition(6, 5), null);
+        Assertions.assertEquals(ChessGame.GameStatus.INSUFFICIENT_MATERIAL, game.status());
+    }
+}
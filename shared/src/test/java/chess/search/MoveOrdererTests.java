@@ -0,0 +1,80 @@
+package chess.search;
+
+import chess.ChessGame;
+import chess.Move;
+import chess.MoveList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MoveOrdererTests {
+    // white can take the queen on d5 with the pawn on e4 or the queen on d1, or the pawn on
+    // h6 with the rook on h1
+    private static final String POSITION = "4k3/8/7p/3q4/4P3/8/8/3QK2R w - - 0 1";
+
+    private static int move(String from, String to) {
+        return Move.encode(square(from), square(to), 0);
+    }
+
+    private static int square(String name) {
+        return (name.charAt(1) - '1') * 8 + (name.charAt(0) - 'a');
+    }
+
+    private static int[] order(MoveOrderer ordering, ChessGame game, int hashMove) {
+        MoveList moves = new MoveList();
+        game.generateMoves(moves);
+        ordering.score(moves, 0, hashMove, game.getBoard(), 0);
+        int[] ordered = new int[moves.size()];
+        for (int i = 0; i < moves.size(); i++) {
+            // the flags don't matter here, only which squares the move is between
+            ordered[i] = ordering.next(moves, 0, i) & (Move.CAPTURE - 1);
+        }
+        return ordered;
+    }
+
+    @Test
+    @DisplayName("Hash Move, Then Captures by MVV-LVA")
+    public void hashMoveAndCaptures() {
+        ChessGame game = ChessGame.fromFen(POSITION);
+        MoveList moves = new MoveList();
+        game.generateMoves(moves);
+        int quiet = Move.NONE;
+        for (int i = 0; i < moves.size() && quiet == Move.NONE; i++) {
+            if (!Move.isCapture(moves.get(i))) {
+                quiet = moves.get(i);
+            }
+        }
+
+        int[] ordered = order(new MoveOrderer(), game, quiet);
+        Assertions.assertEquals(quiet & (Move.CAPTURE - 1), ordered[0]);
+        Assertions.assertEquals(move("e4", "d5"), ordered[1], "the pawn takes the queen first");
+        Assertions.assertEquals(move("d1", "d5"), ordered[2]);
+        Assertions.assertEquals(move("h1", "h6"), ordered[3]);
+    }
+
+    @Test
+    @DisplayName("Killers, Then the History Table")
+    public void killersAndHistory() {
+        ChessGame game = ChessGame.fromFen(POSITION);
+        MoveOrderer ordering = new MoveOrderer();
+        int historyMove = move("h1", "h3");
+        int firstKiller = move("e1", "f2");
+        int secondKiller = move("d1", "a4");
+
+        // a cutoff at another ply only counts in the history table
+        ordering.cutoff(historyMove, 5, 3, 0);
+        ordering.cutoff(secondKiller, 0, 1, 0);
+        ordering.cutoff(firstKiller, 0, 1, 0);
+
+        int[] ordered = order(ordering, game, Move.NONE);
+        // the three captures come first
+        Assertions.assertEquals(firstKiller, ordered[3]);
+        Assertions.assertEquals(secondKiller, ordered[4]);
+        Assertions.assertEquals(historyMove, ordered[5]);
+
+        // a new search forgets the killers but keeps some of the history
+        ordering.newSearch();
+        ordered = order(ordering, game, Move.NONE);
+        Assertions.assertEquals(historyMove, ordered[3]);
+    }
+}
@@ -0,0 +1,74 @@
+package chess.search;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class ParallelSearchTests {
+    private static final String KIWIPETE = "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1";
+
+    @Test
+    @DisplayName("Finds Mate With Helper Threads")
+    public void findsMate() {
+        ChessGame game = ChessGame.fromFen("r5k1/5ppp/8/8/8/8/4QPPP/4R1K1 w - - 0 1");
+        SearchResult result = new ParallelSearch(4, new TranspositionTable(4)).search(game, 6, 0);
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(2, 5), new ChessPosition(8, 5), null),
+                result.bestMove());
+        Assertions.assertEquals(2, result.mateIn());
+    }
+
+    @Test
+    @DisplayName("Helpers Leave the Game as Found and Count Their Nodes")
+    public void leavesGameAsFound() {
+        ChessGame game = new ChessGame();
+        String fen = game.toFen();
+        TranspositionTable table = new TranspositionTable(4);
+        ParallelSearch search = new ParallelSearch(3, table);
+        List<SearchResult> mainIterations = new ArrayList<>();
+        search.setListener(mainIterations::add);
+        SearchResult result = search.search(game, 4, 0);
+
+        Assertions.assertEquals(fen, game.toFen());
+        Assertions.assertTrue(game.isLegal(result.bestMove()));
+        Assertions.assertTrue(table.hits() > 0);
+
+        // the listener only sees the main search, and the result adds the helpers' nodes
+        long mainNodes = mainIterations.get(mainIterations.size() - 1).nodes();
+        Assertions.assertTrue(result.nodes() > mainNodes, result.nodes() + " nodes, main search " + mainNodes);
+    }
+
+    @Test
+    @DisplayName("Stop Ends Every Thread")
+    public void stopEndsSearch() throws Exception {
+        ParallelSearch search = new ParallelSearch(4, new TranspositionTable(4));
+        ChessGame game = ChessGame.fromFen(KIWIPETE);
+        CompletableFuture<SearchResult> running = CompletableFuture.supplyAsync(
+                () -> search.search(game, Search.MAX_PLY, 0));
+
+        Thread.sleep(300);
+        search.stop();
+        SearchResult result = running.get(5, TimeUnit.SECONDS);
+
+        Assertions.assertNotNull(result.bestMove());
+        Assertions.assertEquals(KIWIPETE, game.toFen());
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            Assertions.assertFalse(thread.getName().startsWith("search-helper-"), thread.getName() + " is still running");
+        }
+    }
+
+    @Test
+    @DisplayName("Thread Count Is Checked")
+    public void threadCount() {
+        Assertions.assertEquals(1, new ParallelSearch(1, new TranspositionTable(1)).getThreadCount());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new ParallelSearch(0));
+    }
+}
@@ -0,0 +1,112 @@
+package chess.search;
+
+import chess.ChessGame;
+import chess.ChessMove;
+import chess.ChessPiece;
+import chess.ChessPosition;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SearchTests {
+
+    @Test
+    @DisplayName("Finds Mate in One")
+    public void mateInOne() {
+        ChessGame game = ChessGame.fromFen("6k1/5ppp/8/8/8/8/5PPP/R5K1 w - - 0 1");
+        SearchResult result = new Search().search(game, 4, 0);
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(1, 1), new ChessPosition(8, 1), null),
+                result.bestMove());
+        Assertions.assertTrue(result.isMate());
+        Assertions.assertEquals(1, result.mateIn());
+    }
+
+    @Test
+    @DisplayName("Finds Mate in Two")
+    public void mateInTwo() throws Exception {
+        // the queen is given up on e8 to clear the back rank for the rook
+        ChessGame game = ChessGame.fromFen("r5k1/5ppp/8/8/8/8/4QPPP/4R1K1 w - - 0 1");
+        SearchResult result = new Search().search(game, 6, 0);
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(2, 5), new ChessPosition(8, 5), null),
+                result.bestMove());
+        Assertions.assertEquals(2, result.mateIn());
+        for (ChessMove move : result.principalVariation()) {
+            game.makeMove(move);
+        }
+        Assertions.assertEquals(ChessGame.GameStatus.CHECKMATE, game.status());
+    }
+
+    @Test
+    @DisplayName("Takes a Hanging Queen")
+    public void takesHangingQueen() {
+        ChessGame game = ChessGame.fromFen("4k3/8/8/3q4/8/8/3R4/4K3 w - - 0 1");
+        SearchResult result = new Search().search(game, 4, 0);
+
+        Assertions.assertEquals(new ChessMove(new ChessPosition(2, 4), new ChessPosition(5, 4), null),
+                result.bestMove());
+        Assertions.assertTrue(result.score() > Evaluator.PIECE_VALUES[ChessPiece.PieceType.BISHOP.ordinal()]);
+    }
+
+    @Test
+    @DisplayName("Search Leaves the Game as Found")
+    public void leavesGameAsFound() throws Exception {
+        ChessGame game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        game.makeMove(new ChessMove(new ChessPosition(1, 5), new ChessPosition(1, 7), null));
+        String fen = game.toFen();
+        List<ChessMove> history = game.getMoveHistory();
+
+        // cut off by the clock partway through an iteration, to check that unwinds cleanly too
+        SearchResult result = new Search().search(game, Search.MAX_PLY, 300);
+
+        Assertions.assertEquals(fen, game.toFen());
+        Assertions.assertEquals(history, game.getMoveHistory());
+        Assertions.assertTrue(game.isLegal(result.bestMove()));
+    }
+
+    @Test
+    @DisplayName("Reports Each Iteration")
+    public void reportsIterations() {
+        List<SearchResult> iterations = new ArrayList<>();
+        Search search = new Search();
+        search.setListener(iterations::add);
+        SearchResult result = search.search(new ChessGame(), 4, 0);
+
+        Assertions.assertEquals(4, iterations.size());
+        Assertions.assertEquals(result, iterations.get(3));
+        for (int i = 0; i < iterations.size(); i++) {
+            SearchResult iteration = iterations.get(i);
+            Assertions.assertEquals(i + 1, iteration.depth());
+            Assertions.assertEquals(iteration.bestMove(), iteration.principalVariation().get(0));
+            Assertions.assertTrue(iteration.nodes() > 0);
+            Assertions.assertTrue(iteration.toString().startsWith("depth " + (i + 1) + " score cp "),
+                    iteration.toString());
+        }
+        Assertions.assertTrue(result.nodesPerSecond() > 0);
+    }
+
+    @Test
+    @DisplayName("Stops When Time Runs Out")
+    public void stopsOnTime() {
+        SearchResult result = new Search().search(new ChessGame(), Search.MAX_PLY, 200);
+
+        // the clock, not the depth limit, ended the search, but only after a whole first iteration
+        Assertions.assertNotNull(result.bestMove());
+        Assertions.assertTrue(result.depth() >= 1);
+        Assertions.assertTrue(result.depth() < Search.MAX_PLY, "searched to depth " + result.depth());
+    }
+
+    @Test
+    @DisplayName("No Move When the Game Is Over")
+    public void noMoveWhenOver() {
+        ChessGame stalemate = ChessGame.fromFen("k7/2Q5/1K6/8/8/8/8/8 b - - 0 1");
+        SearchResult result = new Search().search(stalemate, 3, 0);
+
+        Assertions.assertNull(result.bestMove());
+        Assertions.assertEquals(0, result.score());
+    }
+}
@@ -0,0 +1,84 @@
+package chess.search;
+
+import chess.ChessGame;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TranspositionTableTests {
+    private static final long KEY = 0x9D39247E33776D41L;
+
+    @Test
+    @DisplayName("Entries Read Back as Stored")
+    public void roundTrip() {
+        TranspositionTable table = new TranspositionTable(1);
+        Assertions.assertEquals(TranspositionTable.MISS, table.probe(KEY));
+
+        table.store(KEY, 7, TranspositionTable.UPPER_BOUND, -31990, 0x48C);
+        long entry = table.probe(KEY);
+        Assertions.assertEquals(0x48C, TranspositionTable.move(entry));
+        Assertions.assertEquals(-31990, TranspositionTable.score(entry));
+        Assertions.assertEquals(7, TranspositionTable.depth(entry));
+        Assertions.assertEquals(TranspositionTable.UPPER_BOUND, TranspositionTable.bound(entry));
+    }
+
+    @Test
+    @DisplayName("Size Follows the Memory Budget")
+    public void capacity() {
+        // 16 bytes an entry
+        Assertions.assertEquals(1 << 16, new TranspositionTable(1).capacity());
+        Assertions.assertEquals(1 << 18, new TranspositionTable(5).capacity());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new TranspositionTable(0));
+    }
+
+    @Test
+    @DisplayName("Another Position in the Same Slot Is a Miss")
+    public void keyVerification() {
+        TranspositionTable table = new TranspositionTable(1);
+        long sameSlot = KEY ^ (1L << 40);
+        table.store(KEY, 3, TranspositionTable.EXACT, 25, 0);
+        Assertions.assertEquals(TranspositionTable.MISS, table.probe(sameSlot));
+        Assertions.assertEquals(0, table.hitRate());
+        Assertions.assertNotEquals(TranspositionTable.MISS, table.probe(KEY));
+        Assertions.assertEquals(0.5, table.hitRate(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Deeper Entries Are Kept Until They Age")
+    public void replacement() {
+        TranspositionTable table = new TranspositionTable(1);
+        long sameSlot = KEY ^ (1L << 40);
+        table.store(KEY, 6, TranspositionTable.EXACT, 10, 0);
+
+        table.store(sameSlot, 2, TranspositionTable.EXACT, 20, 0);
+        Assertions.assertEquals(10, TranspositionTable.score(table.probe(KEY)), "a shallower entry replaced a deeper one");
+
+        // the same position is always updated
+        table.store(KEY, 1, TranspositionTable.LOWER_BOUND, 30, 0);
+        Assertions.assertEquals(30, TranspositionTable.score(table.probe(KEY)));
+
+        table.store(KEY, 6, TranspositionTable.EXACT, 10, 0);
+        table.newSearch();
+        table.store(sameSlot, 2, TranspositionTable.EXACT, 20, 0);
+        Assertions.assertEquals(TranspositionTable.MISS, table.probe(KEY));
+        Assertions.assertEquals(20, TranspositionTable.score(table.probe(sameSlot)));
+
+        table.clear();
+        Assertions.assertEquals(TranspositionTable.MISS, table.probe(sameSlot));
+    }
+
+    @Test
+    @DisplayName("Search Fills the Table")
+    public void searchUsesTable() {
+        TranspositionTable table = new TranspositionTable(4);
+        Search search = new Search(table);
+        ChessGame game = ChessGame.fromFen("r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1");
+        SearchResult first = search.search(game, 3, 0);
+        Assertions.assertTrue(table.hits() > 0);
+
+        // the second search starts from what the first one left behind
+        SearchResult second = search.search(game, 3, 0);
+        Assertions.assertEquals(first.bestMove(), second.bestMove());
+        Assertions.assertTrue(second.nodes() < first.nodes(), second.nodes() + " nodes, first search " + first.nodes());
+    }
+}